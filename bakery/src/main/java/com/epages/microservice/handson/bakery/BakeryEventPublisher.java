@@ -1,12 +1,10 @@
 package com.epages.microservice.handson.bakery;
 
 import com.epages.microservice.handson.shared.event.EventPublisher;
-import com.google.common.collect.ImmutableMap;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.net.URI;
-import java.util.Map;
 
 @Component
 public class BakeryEventPublisher {
@@ -22,16 +20,11 @@ public class BakeryEventPublisher {
     }
 
     public void sendBakingOrderReceivedEvent(BakeryOrderReceivedEvent event) {
-        Map<String, Object> payloadMap = ImmutableMap.of(
-                "orderLink", event.getOrderLink(),
-                "estimatedTimeOfCompletion", event.getEstimatedTimeOfCompletion());
-        eventPublisher.publish(BAKING_ORDER_RECEIVED_EVENT_TYPE, payloadMap);
+        eventPublisher.publish(BAKING_ORDER_RECEIVED_EVENT_TYPE, event);
     }
 
     public void sendBakingFinishedEvent(URI orderLink) {
-        Map<String, Object> payloadMap = ImmutableMap.of(
-                "orderLink", orderLink);
-        eventPublisher.publish(BAKING_FINISHED_EVENT_TYPE, payloadMap);
+        eventPublisher.publish(BAKING_FINISHED_EVENT_TYPE, new BakingFinishedEvent(orderLink));
     }
 
 
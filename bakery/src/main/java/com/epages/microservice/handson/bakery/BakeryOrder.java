@@ -1,19 +1,27 @@
 package com.epages.microservice.handson.bakery;
 
-import static javax.persistence.GenerationType.IDENTITY;
+import static javax.persistence.GenerationType.SEQUENCE;
 
 import java.io.Serializable;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.persistence.Basic;
+import javax.persistence.CollectionTable;
 import javax.persistence.Column;
+import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
+import com.epages.microservice.handson.bakery.order.LineItem;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
@@ -23,7 +31,8 @@ public class BakeryOrder implements Serializable {
     private static final long serialVersionUID = 4644694270160240621L;
 
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(strategy = SEQUENCE, generator = "BAKERY_ORDER_SEQ")
+    @SequenceGenerator(name = "BAKERY_ORDER_SEQ", sequenceName = "BAKERY_ORDER_SEQ", allocationSize = 50)
     @Column(name = "ID", nullable = false)
     @JsonIgnore
     private Long id;
@@ -36,6 +45,12 @@ public class BakeryOrder implements Serializable {
     @Column(name = "BAKERY_ORDER_STATE", length = 30, nullable = false)
     private BakeryOrderState bakeryOrderState;
 
+    // copied from the OrderCreated event, empty for orders that were announced without a snapshot
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "BAKERY_ORDER_ITEM", joinColumns = @JoinColumn(name = "BAKERY_ORDER_ID"))
+    @JsonIgnore
+    private List<LineItem> items = new ArrayList<>();
+
     public Long getId() {
         return id;
     }
@@ -59,4 +74,12 @@ public class BakeryOrder implements Serializable {
     public void setBakeryOrderState(BakeryOrderState bakeryOrderState) {
         this.bakeryOrderState = bakeryOrderState;
     }
+
+    public List<LineItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<LineItem> items) {
+        this.items = items;
+    }
 }
@@ -1,5 +1,6 @@
 package com.epages.microservice.handson.bakery;
 
+import com.epages.microservice.handson.bakery.order.OrderCreatedEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -11,6 +12,6 @@ public interface BakeryService {
     Page<BakeryOrder> getAll(Pageable pageable);
     Optional<BakeryOrder> get(Long id);
     Optional<BakeryOrder> getByOrderLink(URI orderLink);
-    void acknowledgeOrder(URI orderLink);
+    void acknowledgeOrder(OrderCreatedEvent event);
     void bakeOrder(URI orderLink);
 }
@@ -1,6 +1,7 @@
 package com.epages.microservice.handson.bakery;
 
-import com.epages.microservice.handson.bakery.order.Order;
+import com.epages.microservice.handson.bakery.order.LineItem;
+import com.epages.microservice.handson.bakery.order.OrderCreatedEvent;
 import com.epages.microservice.handson.bakery.order.OrderServiceClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,6 +15,7 @@ import org.springframework.util.Assert;
 
 import java.net.URI;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -53,10 +55,10 @@ public class BakeryServiceImpl implements BakeryService {
     }
 
     @Override
-    public void acknowledgeOrder(URI orderLink) {
-        saveBakeryOrder(orderLink);
+    public void acknowledgeOrder(OrderCreatedEvent event) {
+        saveBakeryOrder(event);
 
-        sendBakingOrderReceivedEvent(orderLink);
+        sendBakingOrderReceivedEvent(event.getOrderLink());
     }
 
     @Async("bakeryThreadPoolTaskExecutor")
@@ -68,10 +70,8 @@ public class BakeryServiceImpl implements BakeryService {
         }
         updateOrderState(bakeryOrder, BakeryOrderState.IN_PROGRESS);
 
-        //retrieve the order to get the pizzas to bake
-        Order order = orderServiceClient.getOrder(orderLink);
         //do all the work
-        bake(order);
+        bake(orderLink, getItems(bakeryOrder));
 
         updateOrderState(bakeryOrder, BakeryOrderState.DONE);
         bakeryEventPublisher.sendBakingFinishedEvent(orderLink);
@@ -93,16 +93,27 @@ public class BakeryServiceImpl implements BakeryService {
         return LocalDateTime.now().plusNanos(timeToBakePizzaInMillis * 1_000_000);
     }
 
-    private void saveBakeryOrder(URI orderLink) {
+    private List<LineItem> getItems(BakeryOrder bakeryOrder) {
+        if (!bakeryOrder.getItems().isEmpty()) {
+            return bakeryOrder.getItems();
+        }
+        // announced without a snapshot - retrieve the order to get the pizzas to bake
+        return orderServiceClient.getOrder(bakeryOrder.getOrderLink()).getOrderItems();
+    }
+
+    private void saveBakeryOrder(OrderCreatedEvent event) {
         BakeryOrder bakeryOrder = new BakeryOrder();
         bakeryOrder.setBakeryOrderState(BakeryOrderState.QUEUED);
-        bakeryOrder.setOrderLink(orderLink);
+        bakeryOrder.setOrderLink(event.getOrderLink());
+        if (event.hasSnapshot()) {
+            bakeryOrder.setItems(event.getItems());
+        }
         bakeryOrderRepository.save(bakeryOrder);
     }
 
-    private void bake(Order order) {
-        Assert.notNull(order, "order may not be null");
-        LOGGER.info("Working hard to bake order {} with items {}", order.getOrderLink(), order.getOrderItems());
+    private void bake(URI orderLink, List<LineItem> items) {
+        Assert.notEmpty(items, "order has no items to bake");
+        LOGGER.info("Working hard to bake order {} with items {}", orderLink, items);
         try {
             Thread.sleep(timeToBakePizzaInMillis);
         } catch (InterruptedException e) {
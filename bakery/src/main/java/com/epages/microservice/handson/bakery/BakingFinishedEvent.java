@@ -0,0 +1,23 @@
+package com.epages.microservice.handson.bakery;
+
+import java.net.URI;
+
+public class BakingFinishedEvent {
+
+    private URI orderLink;
+
+    public BakingFinishedEvent() {
+    }
+
+    public BakingFinishedEvent(URI orderLink) {
+        this.orderLink = orderLink;
+    }
+
+    public URI getOrderLink() {
+        return orderLink;
+    }
+
+    public void setOrderLink(URI orderLink) {
+        this.orderLink = orderLink;
+    }
+}
@@ -1,13 +1,35 @@
 package com.epages.microservice.handson.bakery.order;
 
+import java.io.Serializable;
 import java.net.URI;
 
+import javax.persistence.Basic;
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+
 import static com.google.common.base.MoreObjects.toStringHelper;
 
-public class LineItem {
+@Embeddable
+public class LineItem implements Serializable {
+
+    private static final long serialVersionUID = -5836610371208153271L;
+
+    @Basic
+    @Column(name = "PIZZA", length = 255, nullable = false)
     private URI pizza;
+
+    @Basic
+    @Column(name = "AMOUNT", nullable = false)
     private Integer amount;
 
+    public LineItem() {
+    }
+
+    public LineItem(URI pizza, Integer amount) {
+        this.pizza = pizza;
+        this.amount = amount;
+    }
+
     public URI getPizza() {
         return pizza;
     }
@@ -0,0 +1,63 @@
+package com.epages.microservice.handson.bakery.order;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+public class OrderCreatedEvent {
+
+    /**
+     * Events published before the order snapshot was introduced have no version and no items.
+     */
+    public static final int FIRST_SNAPSHOT_VERSION = 1;
+
+    private int version;
+
+    private URI orderLink;
+
+    private List<LineItem> items = new ArrayList<>();
+
+    public OrderCreatedEvent() {
+    }
+
+    public OrderCreatedEvent(URI orderLink, List<LineItem> items) {
+        this.version = FIRST_SNAPSHOT_VERSION;
+        this.orderLink = orderLink;
+        this.items = items;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public boolean hasSnapshot() {
+        return version >= FIRST_SNAPSHOT_VERSION;
+    }
+
+    public URI getOrderLink() {
+        return orderLink;
+    }
+
+    public void setOrderLink(URI orderLink) {
+        this.orderLink = orderLink;
+    }
+
+    public List<LineItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<LineItem> items) {
+        this.items = items;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this).add("version", version).add("orderLink", orderLink).add("items", items).toString();
+    }
+}
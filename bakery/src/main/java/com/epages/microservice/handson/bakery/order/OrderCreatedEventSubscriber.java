@@ -7,12 +7,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.net.URI;
-import java.util.Map;
 
 @Component
-public class OrderCreatedEventSubscriber extends AbstractEventSubscriber {
+public class OrderCreatedEventSubscriber extends AbstractEventSubscriber<OrderCreatedEvent> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(OrderCreatedEventSubscriber.class);
 
@@ -21,18 +22,26 @@ public class OrderCreatedEventSubscriber extends AbstractEventSubscriber {
 
     @Autowired
     public OrderCreatedEventSubscriber(ObjectMapper objectMapper, BakeryService bakeryService) {
-        super(objectMapper, ORDER_CREATED_EVENT_TYPE);
+        super(objectMapper, ORDER_CREATED_EVENT_TYPE, OrderCreatedEvent.class);
         this.bakeryService = bakeryService;
         LOGGER.info("Created");
     }
 
     @Override
-    protected void handleOwnType(Map<String, Object> event) {
-        final Map<String, Object> payload = getPayload(event);
-        String orderUriString = (String) payload.get("orderLink");
-        URI orderUri = URI.create(orderUriString);
-        bakeryService.acknowledgeOrder(orderUri);
-        bakeryService.bakeOrder(orderUri);
-        LOGGER.info("Consumed {} event with payload '{}' of class '{}'", ORDER_CREATED_EVENT_TYPE, payload, payload.getClass());
+    protected void handleOwnType(OrderCreatedEvent payload) {
+        URI orderUri = payload.getOrderLink();
+        bakeryService.acknowledgeOrder(payload);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // the order is saved in the transaction the event is handled in, baking reads it on another thread
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    bakeryService.bakeOrder(orderUri);
+                }
+            });
+        } else {
+            bakeryService.bakeOrder(orderUri);
+        }
+        LOGGER.info("Consumed {} event with payload '{}'", ORDER_CREATED_EVENT_TYPE, payload);
     }
 }
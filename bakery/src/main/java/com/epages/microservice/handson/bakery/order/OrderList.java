@@ -0,0 +1,24 @@
+package com.epages.microservice.handson.bakery.order;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Response of the order service's bulk endpoint, a HAL collection that may be empty.
+ */
+public class OrderList {
+
+    private final List<Order> orders = new ArrayList<>();
+
+    public List<Order> getOrders() {
+        return orders;
+    }
+
+    @JsonProperty("_embedded")
+    public void setEmbedded(Map<String, List<Order>> embedded) {
+        embedded.values().forEach(orders::addAll);
+    }
+}
@@ -0,0 +1,4 @@
+-- Moves the ids of the bakery orders of an existing database from an identity column to the pooled sequence.
+-- The sequence hands out blocks of 50 ids that end with its value, so it continues 50 above the highest id.
+CREATE SEQUENCE IF NOT EXISTS BAKERY_ORDER_SEQ INCREMENT BY 50;
+ALTER SEQUENCE BAKERY_ORDER_SEQ RESTART WITH (SELECT COALESCE(MAX(ID), 0) + 50 FROM BAKERY_ORDER) INCREMENT BY 50;
@@ -9,6 +9,7 @@ import static org.springframework.test.web.client.response.MockRestResponseCreat
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collections;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -20,6 +21,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -33,7 +35,9 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
+import com.epages.microservice.handson.bakery.order.LineItem;
 import com.epages.microservice.handson.bakery.order.Order;
+import com.epages.microservice.handson.bakery.order.OrderCreatedEvent;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @BakeryApplicationTest(activeProfiles = {"test", "BakeryServiceTest"})
@@ -86,6 +90,7 @@ public class BakeryServiceTest {
     private BakeryOrder bakeryOrder;
     private CompletableFuture<Boolean> asyncInteractionFuture;
     private URI orderUri;
+    private OrderCreatedEvent orderCreatedEvent;
 
     @Configuration
     @Profile("BakeryServiceTest")
@@ -105,6 +110,7 @@ public class BakeryServiceTest {
 
     @After
     public void reset() {
+        Mockito.reset(bakeryEventPublisher);
         bakeryOrderRepository.deleteAll();
     }
 
@@ -113,7 +119,7 @@ public class BakeryServiceTest {
         givenOrderReceivedEvent();
 
         //when
-        bakeryService.acknowledgeOrder(orderUri);
+        bakeryService.acknowledgeOrder(orderCreatedEvent);
 
         //then
         verify(bakeryEventPublisher).sendBakingOrderReceivedEvent(bakeryEventCaptor.capture());
@@ -121,11 +127,27 @@ public class BakeryServiceTest {
         then(bakeryEventCaptor.getValue().getOrderLink()).isEqualTo(orderUri);
         then(bakeryService.getByOrderLink(orderUri).isPresent()).isTrue();
         then(bakeryService.getByOrderLink(orderUri).get().getBakeryOrderState()).isEqualTo(BakeryOrderState.QUEUED);
+        then(bakeryService.getByOrderLink(orderUri).get().getItems()).hasSize(1);
+    }
+
+    @Test
+    public void should_bake_from_order_snapshot() throws URISyntaxException, InterruptedException, TimeoutException, ExecutionException {
+        givenOrderReceivedEvent();
+        bakeryService.acknowledgeOrder(orderCreatedEvent);
+        bakeryOrder = bakeryService.getByOrderLink(orderUri).get();
+        givenMockedEventPublisher();
+
+        whenBakingStarted();
+
+        //then the order was baked without calling back to the order service
+        mockServer.verify();
+        then(bakeryOrder.getBakeryOrderState()).isEqualTo(BakeryOrderState.DONE);
     }
 
     @Test
     public void should_bake() throws URISyntaxException, InterruptedException, TimeoutException, ExecutionException {
         givenBakeryOrder();
+        givenOrderServiceResponse();
         givenMockedEventPublisher();
 
         whenBakingStarted();
@@ -138,6 +160,8 @@ public class BakeryServiceTest {
 
     private void givenOrderReceivedEvent() throws URISyntaxException {
         orderUri = new URI("http://localhost/orders/1");
+        orderCreatedEvent = new OrderCreatedEvent(orderUri,
+                Collections.singletonList(new LineItem(new URI("http://localhost/pizzas/1"), 2)));
     }
 
     private void whenBakingStarted() throws InterruptedException, ExecutionException, TimeoutException {
@@ -149,9 +173,12 @@ public class BakeryServiceTest {
         bakeryOrder = bakeryOrderRepository.findOne(bakeryOrder.getId());
     }
 
+    private void givenOrderServiceResponse() {
+        mockServer.expect(requestTo(bakeryOrder.getOrderLink())).andRespond(withSuccess(orderResponse, MediaType.APPLICATION_JSON));
+    }
+
     private void givenMockedEventPublisher() {
         asyncInteractionFuture = new CompletableFuture<>();
-        mockServer.expect(requestTo(bakeryOrder.getOrderLink())).andRespond(withSuccess(orderResponse, MediaType.APPLICATION_JSON));
 
         //complete the future when deliveryEventPublisher.sendDeliveredEvent is called
         doAnswer(new Answer<Object>() {
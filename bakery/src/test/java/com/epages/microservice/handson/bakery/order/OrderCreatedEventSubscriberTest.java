@@ -0,0 +1,108 @@
+package com.epages.microservice.handson.bakery.order;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.IntegrationTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.epages.microservice.handson.bakery.BakeryApplicationTest;
+import com.epages.microservice.handson.bakery.BakeryEventPublisher;
+import com.epages.microservice.handson.bakery.BakeryOrderRepository;
+import com.epages.microservice.handson.bakery.BakeryOrderState;
+import com.epages.microservice.handson.shared.event.EventDeduplicator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@BakeryApplicationTest(activeProfiles = {"test", "OrderCreatedEventSubscriberTest"})
+@IntegrationTest({"bakery.timeToBakePizzaInMillis:1", "server.port:0"})
+public class OrderCreatedEventSubscriberTest {
+
+    @Autowired
+    private OrderCreatedEventSubscriber orderCreatedEventSubscriber;
+
+    @Autowired
+    private EventDeduplicator eventDeduplicator;
+
+    @Autowired
+    private BakeryEventPublisher bakeryEventPublisher;
+
+    @Autowired
+    private BakeryOrderRepository bakeryOrderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private URI orderUri;
+
+    @Configuration
+    @Profile("OrderCreatedEventSubscriberTest")
+    public static class MockConfiguration {
+        @Bean
+        public BakeryEventPublisher bakeryEventPublisher() {
+            return mock(BakeryEventPublisher.class);
+        }
+    }
+
+    @After
+    public void reset() {
+        Mockito.reset(bakeryEventPublisher);
+        bakeryOrderRepository.deleteAll();
+    }
+
+    @Test
+    public void should_bake_order_acknowledged_in_deduplicator_transaction() throws Exception {
+        then(eventDeduplicator).isNotNull();
+        final String event = givenOrderCreatedEvent();
+
+        // a slow commit, baking must not read the order before it is committed
+        new TransactionTemplate(transactionManager).execute(status -> {
+            orderCreatedEventSubscriber.consume(event);
+            sleep(200);
+            return null;
+        });
+
+        verify(bakeryEventPublisher, timeout(2000)).sendBakingFinishedEvent(orderUri);
+        then(bakeryOrderRepository.findByOrderLink(orderUri).getBakeryOrderState()).isEqualTo(BakeryOrderState.DONE);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String givenOrderCreatedEvent() throws URISyntaxException, JsonProcessingException {
+        orderUri = new URI("http://localhost/orders/" + UUID.randomUUID());
+        final OrderCreatedEvent payload = new OrderCreatedEvent(orderUri,
+                Collections.singletonList(new LineItem(new URI("http://localhost/pizzas/1"), 2)));
+        return objectMapper.writeValueAsString(ImmutableMap.of(
+                "id", UUID.randomUUID().toString(),
+                "type", "OrderCreated",
+                "payload", payload));
+    }
+}
@@ -0,0 +1,87 @@
+package com.epages.microservice.handson.bakery.order;
+
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+public class OrderServiceClientTest {
+
+    private static final URI FIRST_ORDER = URI.create("http://localhost/orders/1");
+    private static final URI SECOND_ORDER = URI.create("http://localhost/orders/2");
+
+    private MockRestServiceServer mockServer;
+
+    private OrderServiceClient orderServiceClient;
+
+    private CompletableFuture<Order> firstOrder;
+    private CompletableFuture<Order> secondOrder;
+
+    @Before
+    public void setUp() {
+        RestTemplate restTemplate = new RestTemplate(singletonList(
+                new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build())));
+        mockServer = MockRestServiceServer.createServer(restTemplate);
+        orderServiceClient = new OrderServiceClient(restTemplate, 50, 100, 2, 10000);
+    }
+
+    @After
+    public void tearDown() {
+        orderServiceClient.destroy();
+    }
+
+    @Test
+    public void should_read_concurrent_lookups_in_one_bulk_request() throws Exception {
+        mockServer.expect(requestTo(startsWith("http://localhost/orders/bulk?link=")))
+                .andRespond(withSuccess("{\"_embedded\": {\"orderResources\": [" + order(FIRST_ORDER) + ", " + order(SECOND_ORDER) + "]}}",
+                        MediaType.APPLICATION_JSON));
+
+        whenOrdersReadConcurrently();
+
+        then(firstOrder.get(1, SECONDS).getOrderLink()).isEqualTo(FIRST_ORDER);
+        then(secondOrder.get(1, SECONDS).getOrderLink()).isEqualTo(SECOND_ORDER);
+        mockServer.verify();
+    }
+
+    @Test
+    public void should_read_orders_one_by_one_without_bulk_endpoint() throws Exception {
+        mockServer.expect(requestTo(startsWith("http://localhost/orders/bulk?link=")))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+        mockServer.expect(requestTo(startsWith("http://localhost/orders/")))
+                .andRespond(withSuccess(order(FIRST_ORDER), MediaType.APPLICATION_JSON));
+        mockServer.expect(requestTo(startsWith("http://localhost/orders/")))
+                .andRespond(withSuccess(order(FIRST_ORDER), MediaType.APPLICATION_JSON));
+
+        whenOrdersReadConcurrently();
+
+        then(firstOrder.get(1, SECONDS)).isNotNull();
+        then(secondOrder.get(1, SECONDS)).isNotNull();
+        mockServer.verify();
+    }
+
+    private void whenOrdersReadConcurrently() {
+        firstOrder = CompletableFuture.supplyAsync(() -> orderServiceClient.getOrder(FIRST_ORDER));
+        secondOrder = CompletableFuture.supplyAsync(() -> orderServiceClient.getOrder(SECOND_ORDER));
+    }
+
+    private String order(URI orderLink) {
+        return "{\"orderItems\": [{\"pizza\": \"http://localhost/pizzas/1\", \"amount\": 1}], "
+                + "\"_links\": {\"self\": {\"href\": \"" + orderLink + "\"}}}";
+    }
+}
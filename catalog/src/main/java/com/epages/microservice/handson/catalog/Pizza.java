@@ -5,10 +5,13 @@ import static javax.persistence.GenerationType.IDENTITY;
 import java.util.Set;
 
 import javax.money.MonetaryAmount;
+import javax.persistence.AttributeOverride;
+import javax.persistence.AttributeOverrides;
 import javax.persistence.Basic;
 import javax.persistence.CollectionTable;
 import javax.persistence.Column;
 import javax.persistence.ElementCollection;
+import javax.persistence.Embedded;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
@@ -19,6 +22,8 @@ import javax.persistence.JoinColumn;
 import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
 
+import com.epages.microservice.handson.shared.money.EmbeddedMoney;
+
 @Entity
 @Table(name = "PIZZA")
 public class Pizza {
@@ -39,9 +44,16 @@ public class Pizza {
     @Column(name = "IMAGE_URL", length = 255, nullable = false)
     private String imageUrl;
 
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "amount", column = @Column(name = "PRICE_AMOUNT")),
+            @AttributeOverride(name = "currency", column = @Column(name = "PRICE_CURRENCY", length = 3)) })
+    private EmbeddedMoney price;
+
+    // formatted price of pizzas stored before the numeric columns, see db/pizza-price.sql
     @Basic
     @Column(name = "PRICE")
-    private MonetaryAmount price;
+    private MonetaryAmount legacyPrice;
 
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(
@@ -85,11 +97,12 @@ public class Pizza {
     }
 
     public MonetaryAmount getPrice() {
-        return price;
+        return price != null ? price.toMonetaryAmount() : legacyPrice;
     }
 
     public void setPrice(MonetaryAmount price) {
-        this.price = price;
+        this.price = EmbeddedMoney.of(price);
+        this.legacyPrice = null;
     }
 
     public Set<Topping> getToppings() {
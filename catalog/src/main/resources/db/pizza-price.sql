@@ -0,0 +1,13 @@
+-- Moves the formatted pizza prices (e.g. 'EUR 1,234.50' or 'EUR- 3.50') of an existing database into the numeric
+-- PRICE_AMOUNT (minor units) and PRICE_CURRENCY columns. Pizzas that are not migrated yet are still read from PRICE.
+-- The formatted prices always had two fraction digits, so their minor units are cents.
+ALTER TABLE PIZZA ADD COLUMN IF NOT EXISTS PRICE_AMOUNT BIGINT;
+ALTER TABLE PIZZA ADD COLUMN IF NOT EXISTS PRICE_CURRENCY VARCHAR(3);
+ALTER TABLE PIZZA ALTER COLUMN PRICE SET NULL;
+
+UPDATE PIZZA
+SET PRICE_AMOUNT = CASE WHEN SUBSTRING(PRICE, 4, 1) = '-' THEN -1 ELSE 1 END
+        * CAST(TRIM(REPLACE(SUBSTRING(PRICE, 5), ',', '')) AS DECIMAL(19, 2)) * 100,
+    PRICE_CURRENCY = SUBSTRING(PRICE, 1, 3),
+    PRICE = NULL
+WHERE PRICE_AMOUNT IS NULL AND PRICE IS NOT NULL;
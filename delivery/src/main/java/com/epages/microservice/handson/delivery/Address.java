@@ -2,13 +2,32 @@ package com.epages.microservice.handson.delivery;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 
-public class Address {
+import java.io.Serializable;
 
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+
+@Embeddable
+public class Address implements Serializable {
+
+    private static final long serialVersionUID = 2710473618304217359L;
+
+    @Column(name = "FIRSTNAME", length = 255)
     private String firstname;
+
+    @Column(name = "LASTNAME", length = 255)
     private String lastname;
+
+    @Column(name = "STREET", length = 255)
     private String street;
+
+    @Column(name = "CITY", length = 255)
     private String city;
+
+    @Column(name = "POSTALCODE", length = 255)
     private String postalCode;
+
+    @Column(name = "TELEPHONE", length = 255)
     private String telephone;
 
     public String getFirstname() {
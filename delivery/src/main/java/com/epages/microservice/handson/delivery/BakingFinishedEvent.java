@@ -0,0 +1,23 @@
+package com.epages.microservice.handson.delivery;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+import java.net.URI;
+
+public class BakingFinishedEvent {
+
+    private URI orderLink;
+
+    public URI getOrderLink() {
+        return orderLink;
+    }
+
+    public void setOrderLink(URI orderLink) {
+        this.orderLink = orderLink;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this).add("orderLink", orderLink).toString();
+    }
+}
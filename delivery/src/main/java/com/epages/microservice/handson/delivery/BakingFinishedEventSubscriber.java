@@ -1,8 +1,5 @@
 package com.epages.microservice.handson.delivery;
 
-import java.net.URI;
-import java.util.Map;
-
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -10,7 +7,7 @@ import com.epages.microservice.handson.shared.event.AbstractEventSubscriber;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Component
-public class BakingFinishedEventSubscriber extends AbstractEventSubscriber {
+public class BakingFinishedEventSubscriber extends AbstractEventSubscriber<BakingFinishedEvent> {
 
     private static final String BAKING_FINISHED_EVENT_TYPE = "BakingFinished";
 
@@ -19,16 +16,13 @@ public class BakingFinishedEventSubscriber extends AbstractEventSubscriber {
     @Autowired
     public BakingFinishedEventSubscriber(ObjectMapper objectMapper,
                                          DeliveryService deliveryService) {
-        super(objectMapper, BAKING_FINISHED_EVENT_TYPE);
+        super(objectMapper, BAKING_FINISHED_EVENT_TYPE, BakingFinishedEvent.class);
         this.deliveryService = deliveryService;
     }
 
     @Override
-    protected void handleOwnType(Map<String, Object> event) {
-        Map<String, Object> payload = getPayload(event);
-        String orderUriString = (String) payload.get("orderLink");
-        URI orderUri = URI.create(orderUriString);
-        deliveryService.startDelivery(orderUri);
+    protected void handleOwnType(BakingFinishedEvent payload) {
+        deliveryService.startDelivery(payload.getOrderLink());
     }
 
 }
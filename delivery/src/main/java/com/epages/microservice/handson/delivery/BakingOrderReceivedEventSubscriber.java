@@ -1,8 +1,5 @@
 package com.epages.microservice.handson.delivery;
 
-import java.io.IOException;
-import java.util.Map;
-
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -10,7 +7,7 @@ import com.epages.microservice.handson.shared.event.AbstractEventSubscriber;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Component
-public class BakingOrderReceivedEventSubscriber extends AbstractEventSubscriber {
+public class BakingOrderReceivedEventSubscriber extends AbstractEventSubscriber<BakingOrderReceivedEvent> {
 
     private static final String BAKING_ORDER_RECEIVED_EVENT_TYPE = "BakingOrderReceived";
 
@@ -19,22 +16,13 @@ public class BakingOrderReceivedEventSubscriber extends AbstractEventSubscriber
     @Autowired
     public BakingOrderReceivedEventSubscriber(ObjectMapper objectMapper,
                                               DeliveryService deliveryService) {
-        super(objectMapper, BAKING_ORDER_RECEIVED_EVENT_TYPE);
+        super(objectMapper, BAKING_ORDER_RECEIVED_EVENT_TYPE, BakingOrderReceivedEvent.class);
         this.deliveryService = deliveryService;
     }
 
     @Override
-    protected void handleOwnType(Map<String, Object> event) {
-        Map<String, Object> payload = getPayload(event);
-        BakingOrderReceivedEvent typedEvent = null;
-        try {
-            typedEvent = objectMapper.readValue(objectMapper.writeValueAsString(payload), BakingOrderReceivedEvent.class);
-        } catch (IOException e) {
-            throw new RuntimeException(String.format("Could not deserialize event %s to %s", event, BakingOrderReceivedEvent.class.getName()));
-        }
-
-        deliveryService.scheduleDelivery(typedEvent);
-
+    protected void handleOwnType(BakingOrderReceivedEvent payload) {
+        deliveryService.scheduleDelivery(payload);
     }
 
 }
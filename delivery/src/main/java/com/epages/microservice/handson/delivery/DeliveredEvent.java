@@ -0,0 +1,23 @@
+package com.epages.microservice.handson.delivery;
+
+import java.net.URI;
+
+public class DeliveredEvent {
+
+    private URI orderLink;
+
+    public DeliveredEvent() {
+    }
+
+    public DeliveredEvent(URI orderLink) {
+        this.orderLink = orderLink;
+    }
+
+    public URI getOrderLink() {
+        return orderLink;
+    }
+
+    public void setOrderLink(URI orderLink) {
+        this.orderLink = orderLink;
+    }
+}
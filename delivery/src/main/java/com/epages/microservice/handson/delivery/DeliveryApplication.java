@@ -8,6 +8,9 @@ import org.springframework.data.web.config.EnableSpringDataWebSupport;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import com.epages.microservice.handson.shared.tracing.Tracer;
+import com.epages.microservice.handson.shared.tracing.TracingTaskExecutor;
+
 @SpringBootApplication
 @EnableSpringDataWebSupport
 @EnableRabbit
@@ -19,8 +22,8 @@ public class DeliveryApplication {
     }
 
     @Bean
-    ThreadPoolTaskExecutor deliveryThreadPoolTaskExecutor() {
-        ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
+    ThreadPoolTaskExecutor deliveryThreadPoolTaskExecutor(Tracer tracer) {
+        ThreadPoolTaskExecutor threadPoolTaskExecutor = new TracingTaskExecutor(tracer);
         threadPoolTaskExecutor.setCorePoolSize(2);
         threadPoolTaskExecutor.setMaxPoolSize(2);
         threadPoolTaskExecutor.setQueueCapacity(1000);
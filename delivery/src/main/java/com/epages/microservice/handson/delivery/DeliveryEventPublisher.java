@@ -1,12 +1,10 @@
 package com.epages.microservice.handson.delivery;
 
-import com.epages.microservice.handson.delivery.order.Order;
 import com.epages.microservice.handson.shared.event.EventPublisher;
-import com.google.common.collect.ImmutableMap;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
+import java.net.URI;
 
 @Component
 public class DeliveryEventPublisher {
@@ -21,15 +19,10 @@ public class DeliveryEventPublisher {
     }
 
     public void sendDeliveryOrderReceivedEvent(DeliveryOrderReceivedEvent event) {
-        Map<String, Object> payloadMap = ImmutableMap.of(
-                "orderLink", event.getOrderLink(),
-                "estimatedTimeOfDelivery", event.getEstimatedTimeOfDelivery());
-        eventPublisher.publish(DELIVERY_ORDER_RECEIVED_EVENT_TYPE, payloadMap);
+        eventPublisher.publish(DELIVERY_ORDER_RECEIVED_EVENT_TYPE, event);
     }
 
-    public void sendDeliveredEvent(Order order) {
-        Map<String, Object> payloadMap = ImmutableMap.of(
-                "orderLink", order.getOrderLink());
-        eventPublisher.publish(DELIVERED_EVENT_TYPE, payloadMap);
+    public void sendDeliveredEvent(URI orderLink) {
+        eventPublisher.publish(DELIVERED_EVENT_TYPE, new DeliveredEvent(orderLink));
     }
 }
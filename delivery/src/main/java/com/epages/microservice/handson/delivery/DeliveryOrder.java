@@ -1,18 +1,20 @@
 package com.epages.microservice.handson.delivery;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
-import static javax.persistence.GenerationType.IDENTITY;
+import static javax.persistence.GenerationType.SEQUENCE;
 
 import java.io.Serializable;
 import java.net.URI;
 
 import javax.persistence.Basic;
 import javax.persistence.Column;
+import javax.persistence.Embedded;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -24,7 +26,8 @@ public class DeliveryOrder implements Serializable {
     private static final long serialVersionUID = -3563967320907787156L;
 
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(strategy = SEQUENCE, generator = "DELIVERY_ORDER_SEQ")
+    @SequenceGenerator(name = "DELIVERY_ORDER_SEQ", sequenceName = "DELIVERY_ORDER_SEQ", allocationSize = 50)
     @Column(name = "ID", nullable = false)
     @JsonIgnore
     private Long id;
@@ -37,6 +40,11 @@ public class DeliveryOrder implements Serializable {
     @Column(name = "DELIVERY_ORDER_STATE", length = 30, nullable = false)
     private DeliveryOrderState deliveryOrderState;
 
+    // copied from the OrderCreated event, null for orders that were announced without a snapshot
+    @Embedded
+    @JsonIgnore
+    private Address deliveryAddress;
+
     public Long getId() {
         return id;
     }
@@ -61,6 +69,14 @@ public class DeliveryOrder implements Serializable {
         this.deliveryOrderState = deliveryOrderState;
     }
 
+    public Address getDeliveryAddress() {
+        return deliveryAddress;
+    }
+
+    public void setDeliveryAddress(Address deliveryAddress) {
+        this.deliveryAddress = deliveryAddress;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
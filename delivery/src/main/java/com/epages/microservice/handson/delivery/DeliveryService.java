@@ -1,5 +1,6 @@
 package com.epages.microservice.handson.delivery;
 
+import com.epages.microservice.handson.delivery.order.OrderCreatedEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -12,6 +13,11 @@ public interface DeliveryService {
     Optional<DeliveryOrder> get(Long id);
     Optional<DeliveryOrder> getByOrderLink(URI orderLink);
 
+    /**
+     * Keeps what is needed to deliver the order, before baking even started.
+     */
+    void registerOrder(OrderCreatedEvent event);
+
     void startDelivery(URI orderUri);
 
     void scheduleDelivery(BakingOrderReceivedEvent event);
@@ -1,11 +1,12 @@
 package com.epages.microservice.handson.delivery;
 
-import com.epages.microservice.handson.delivery.order.Order;
+import com.epages.microservice.handson.delivery.order.OrderCreatedEvent;
 import com.epages.microservice.handson.delivery.order.OrderServiceClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
@@ -53,19 +54,37 @@ class DeliveryServiceImpl implements DeliveryService {
         return Optional.ofNullable(deliveryOrderRepository.findByOrderLink(orderLink));
     }
 
+    @Override
+    public void registerOrder(OrderCreatedEvent event) {
+        DeliveryOrder deliveryOrder = findOrCreateDeliveryOrder(event.getOrderLink());
+        deliveryOrder.setDeliveryAddress(event.getDeliveryAddress());
+        deliveryOrderRepository.save(deliveryOrder);
+    }
+
     @Override
     @Async("deliveryThreadPoolTaskExecutor")
     public void startDelivery(URI orderUri) {
-        DeliveryOrder deliveryOrder = deliveryOrderRepository.findByOrderLink(orderUri);
-        updateOrderState(deliveryOrder, DeliveryOrderState.IN_PROGRESS);
-
-        //retrieve the delivery address to be able to startDelivery
-        Order order = orderServiceClient.getOrder(orderUri);
+        DeliveryOrder deliveryOrder = findOrCreateDeliveryOrder(orderUri);
+        try {
+            updateOrderState(deliveryOrder, DeliveryOrderState.IN_PROGRESS);
+        } catch (DataIntegrityViolationException e) {
+            // created by the OrderCreated or BakingOrderReceived handler meanwhile
+            deliveryOrder = deliveryOrderRepository.findByOrderLink(orderUri);
+            updateOrderState(deliveryOrder, DeliveryOrderState.IN_PROGRESS);
+        }
 
-        doTheDeliveryWork(order);
+        doTheDeliveryWork(orderUri, getDeliveryAddress(deliveryOrder));
 
         updateOrderState(deliveryOrder, DeliveryOrderState.DONE);
-        deliveryEventPublisher.sendDeliveredEvent(order);
+        deliveryEventPublisher.sendDeliveredEvent(orderUri);
+    }
+
+    private Address getDeliveryAddress(DeliveryOrder deliveryOrder) {
+        if (deliveryOrder.getDeliveryAddress() != null) {
+            return deliveryOrder.getDeliveryAddress();
+        }
+        //announced without a snapshot - retrieve the delivery address to be able to startDelivery
+        return orderServiceClient.getOrder(deliveryOrder.getOrderLink()).getDeliveryAddress();
     }
 
     @Override
@@ -82,11 +101,18 @@ class DeliveryServiceImpl implements DeliveryService {
 
 
     private void saveDeliveryOrder(BakingOrderReceivedEvent event) {
-        DeliveryOrder deliveryOrder = new DeliveryOrder();
-        deliveryOrder.setOrderLink(event.getOrderLink());
-        deliveryOrder.setDeliveryOrderState(DeliveryOrderState.QUEUED);
+        deliveryOrderRepository.save(findOrCreateDeliveryOrder(event.getOrderLink()));
+    }
 
-        deliveryOrderRepository.save(deliveryOrder);
+    private DeliveryOrder findOrCreateDeliveryOrder(URI orderLink) {
+        // OrderCreated, BakingOrderReceived and BakingFinished arrive on different queues, in any order
+        DeliveryOrder deliveryOrder = deliveryOrderRepository.findByOrderLink(orderLink);
+        if (deliveryOrder == null) {
+            deliveryOrder = new DeliveryOrder();
+            deliveryOrder.setOrderLink(orderLink);
+            deliveryOrder.setDeliveryOrderState(DeliveryOrderState.QUEUED);
+        }
+        return deliveryOrder;
     }
 
     private void sendDeliveryOrderReceivedEvent(BakingOrderReceivedEvent event) {
@@ -100,8 +126,8 @@ class DeliveryServiceImpl implements DeliveryService {
         deliveryEventPublisher.sendDeliveryOrderReceivedEvent(deliveryOrderReceivedEvent);
     }
 
-    private void doTheDeliveryWork(Order order) {
-        LOGGER.info("Working hard to deliver order {} to address {}", order.getOrderLink(), order.getDeliveryAddress());
+    private void doTheDeliveryWork(URI orderUri, Address deliveryAddress) {
+        LOGGER.info("Working hard to deliver order {} to address {}", orderUri, deliveryAddress);
         try {
             Thread.sleep(timeToDeliverInMillis);
         } catch (InterruptedException e) {
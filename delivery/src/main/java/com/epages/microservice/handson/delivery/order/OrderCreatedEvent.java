@@ -0,0 +1,63 @@
+package com.epages.microservice.handson.delivery.order;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+import java.net.URI;
+
+import com.epages.microservice.handson.delivery.Address;
+
+public class OrderCreatedEvent {
+
+    /**
+     * Events published before the order snapshot was introduced have no version and no address.
+     */
+    public static final int FIRST_SNAPSHOT_VERSION = 1;
+
+    private int version;
+
+    private URI orderLink;
+
+    private Address deliveryAddress;
+
+    public OrderCreatedEvent() {
+    }
+
+    public OrderCreatedEvent(URI orderLink, Address deliveryAddress) {
+        this.version = FIRST_SNAPSHOT_VERSION;
+        this.orderLink = orderLink;
+        this.deliveryAddress = deliveryAddress;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public boolean hasSnapshot() {
+        return version >= FIRST_SNAPSHOT_VERSION;
+    }
+
+    public URI getOrderLink() {
+        return orderLink;
+    }
+
+    public void setOrderLink(URI orderLink) {
+        this.orderLink = orderLink;
+    }
+
+    public Address getDeliveryAddress() {
+        return deliveryAddress;
+    }
+
+    public void setDeliveryAddress(Address deliveryAddress) {
+        this.deliveryAddress = deliveryAddress;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this).add("version", version).add("orderLink", orderLink).add("deliveryAddress", deliveryAddress).toString();
+    }
+}
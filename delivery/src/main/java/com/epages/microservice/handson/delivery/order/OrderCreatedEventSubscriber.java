@@ -0,0 +1,29 @@
+package com.epages.microservice.handson.delivery.order;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.epages.microservice.handson.delivery.DeliveryService;
+import com.epages.microservice.handson.shared.event.AbstractEventSubscriber;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Component
+public class OrderCreatedEventSubscriber extends AbstractEventSubscriber<OrderCreatedEvent> {
+
+    private static final String ORDER_CREATED_EVENT_TYPE = "OrderCreated";
+
+    private final DeliveryService deliveryService;
+
+    @Autowired
+    public OrderCreatedEventSubscriber(ObjectMapper objectMapper, DeliveryService deliveryService) {
+        super(objectMapper, ORDER_CREATED_EVENT_TYPE, OrderCreatedEvent.class);
+        this.deliveryService = deliveryService;
+    }
+
+    @Override
+    protected void handleOwnType(OrderCreatedEvent payload) {
+        if (payload.hasSnapshot()) {
+            deliveryService.registerOrder(payload);
+        }
+    }
+}
@@ -1,28 +1,98 @@
 package com.epages.microservice.handson.delivery.order;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import com.epages.microservice.handson.shared.web.BatchingLoader;
+import com.google.common.base.Throwables;
+
+/**
+ * Concurrent lookups are coalesced into bulk requests to the order service. Orders the bulk request does not
+ * return, and all orders of an order service without the bulk endpoint, are read one by one.
+ */
 @Component
-public class OrderServiceClient {
+public class OrderServiceClient implements DisposableBean {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(OrderServiceClient.class);
 
     private final RestTemplate restTemplate;
 
+    private final BatchingLoader<URI, Order> orderLoader;
+
+    private final long timeoutMillis;
+
     @Autowired
-    public OrderServiceClient(RestTemplate restTemplate) {
+    public OrderServiceClient(RestTemplate restTemplate,
+                              @Value("${delivery.order-client.max-batch-size:50}") int maxBatchSize,
+                              @Value("${delivery.order-client.batch-window-millis:10}") long batchWindowMillis,
+                              @Value("${delivery.order-client.threads:4}") int threads,
+                              @Value("${delivery.order-client.timeout-millis:10000}") long timeoutMillis) {
         this.restTemplate = restTemplate;
+        this.timeoutMillis = timeoutMillis;
+        this.orderLoader = new BatchingLoader<>("order-client", this::getOrders, maxBatchSize, batchWindowMillis, threads);
     }
 
     public Order getOrder(URI orderUri) {
-        Order order = restTemplate.getForObject(orderUri, Order.class);
+        Order order;
+        try {
+            order = orderLoader.load(orderUri).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException(String.format("Reading order %s timed out after %s ms", orderUri, timeoutMillis), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(String.format("Interrupted while reading order %s", orderUri), e);
+        }
+        if (order == null) {
+            order = restTemplate.getForObject(orderUri, Order.class);
+        }
         LOGGER.info("Read order from URI {} - got {}", orderUri, order);
         return order;
     }
+
+    private Map<URI, Order> getOrders(Collection<URI> orderUris) {
+        final Map<URI, List<URI>> orderUrisByBulkUri = new LinkedHashMap<>();
+        orderUris.forEach(orderUri -> orderUrisByBulkUri.computeIfAbsent(orderUri.resolve("bulk"), bulkUri -> new ArrayList<>()).add(orderUri));
+
+        final Map<URI, Order> orders = new HashMap<>();
+        orderUrisByBulkUri.forEach((bulkUri, uris) -> {
+            if (uris.size() == 1) {
+                // read by getOrder itself, a single lookup gains nothing from the bulk endpoint
+                return;
+            }
+            final UriComponentsBuilder request = UriComponentsBuilder.fromUri(bulkUri);
+            uris.forEach(uri -> request.queryParam("link", uri));
+            try {
+                restTemplate.getForObject(request.build().toUri(), OrderList.class).getOrders()
+                        .forEach(order -> orders.put(order.getOrderLink(), order));
+            } catch (HttpClientErrorException e) {
+                LOGGER.warn("Bulk read from {} failed with {}, reading orders one by one", bulkUri, e.getStatusCode());
+            }
+        });
+        return orders;
+    }
+
+    @Override
+    public void destroy() {
+        orderLoader.destroy();
+    }
 }
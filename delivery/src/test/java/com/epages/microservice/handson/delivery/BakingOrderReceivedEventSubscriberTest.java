@@ -1,7 +1,9 @@
 package com.epages.microservice.handson.delivery;
 
 import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import org.junit.After;
@@ -69,4 +71,21 @@ public class BakingOrderReceivedEventSubscriberTest {
         then(deliveryEventCaptor.getValue().getEstimatedTimeOfDelivery()).isNotNull();
     }
 
+    @Test
+    public void should_handle_redelivered_event_once() {
+        String eventWithId = "{\n" +
+                "  \"id\" : \"6c1f3a0e-6f5b-4f4e-9a43-8d2b0e3c9a11\",\n" +
+                "  \"type\" : \"BakingOrderReceived\",\n" +
+                "  \"timestamp\" : \"2015-09-01T21:43:48.391\",\n" +
+                "  \"payload\" : {\n" +
+                "      \"orderLink\" : \"http://192.168.99.100:8081/orders/2\",\n" +
+                "      \"estimatedTimeOfCompletion\" : \"2015-09-12T07:43:48.391\"\n" +
+                "  }\n" +
+                "}";
+
+        bakingOrderReceivedEventSubscriber.consume(eventWithId);
+        bakingOrderReceivedEventSubscriber.consume(eventWithId);
+
+        verify(deliveryEventPublisher, times(1)).sendDeliveryOrderReceivedEvent(any(DeliveryOrderReceivedEvent.class));
+    }
 }
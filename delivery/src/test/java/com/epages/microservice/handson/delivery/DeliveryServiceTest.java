@@ -37,7 +37,7 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
-import com.epages.microservice.handson.delivery.order.Order;
+import com.epages.microservice.handson.delivery.order.OrderCreatedEvent;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @DeliveryApplicationTest(activeProfiles = { "test", "DeliveryServiceTest" })
@@ -60,7 +60,7 @@ public class DeliveryServiceTest {
     private ArgumentCaptor<DeliveryOrderReceivedEvent> deliveryEventCaptor;
 
     @Captor
-    private ArgumentCaptor<Order> orderCaptor;
+    private ArgumentCaptor<URI> orderLinkCaptor;
 
     private MockRestServiceServer mockServer;
 
@@ -139,18 +139,48 @@ public class DeliveryServiceTest {
     @Test
     public void should_deliver() throws URISyntaxException, InterruptedException, TimeoutException, ExecutionException {
         givenDeliveryOrder();
+        givenOrderServiceResponse();
 
         givenMockedEventPublisher();
 
         whenDeliveryStarted();
 
         //then
-        verify(deliveryEventPublisher).sendDeliveredEvent(orderCaptor.capture());
-        then(orderCaptor.getValue().getOrderLink()).isEqualTo(deliveryOrder.getOrderLink());
+        verify(deliveryEventPublisher).sendDeliveredEvent(orderLinkCaptor.capture());
+        then(orderLinkCaptor.getValue()).isEqualTo(deliveryOrder.getOrderLink());
         then(deliveryOrder.getDeliveryOrderState()).isEqualTo(DeliveryOrderState.DONE);
 
     }
 
+    @Test
+    public void should_deliver_to_address_from_order_snapshot() throws URISyntaxException, InterruptedException, TimeoutException, ExecutionException {
+        givenOrderCreatedEventWithSnapshot();
+        givenBakingOrderReceivedEvent();
+        deliveryService.scheduleDelivery(bakingOrderReceivedEvent);
+        deliveryOrder = deliveryService.getByOrderLink(bakingOrderReceivedEvent.getOrderLink()).get();
+
+        givenMockedEventPublisher();
+
+        whenDeliveryStarted();
+
+        //then the order was delivered without calling back to the order service
+        mockServer.verify();
+        then(deliveryOrder.getDeliveryAddress().getFirstname()).isEqualTo("Mathias");
+        then(deliveryOrder.getDeliveryOrderState()).isEqualTo(DeliveryOrderState.DONE);
+    }
+
+    @Test
+    public void should_deliver_order_that_finished_baking_before_it_was_registered() throws URISyntaxException, InterruptedException, TimeoutException, ExecutionException {
+        final URI orderUri = new URI("http://localhost/orders/1");
+        mockServer.expect(requestTo(orderUri)).andRespond(withSuccess(orderResponse, MediaType.APPLICATION_JSON));
+        givenMockedEventPublisher();
+
+        deliveryService.startDelivery(orderUri);
+        asyncInteractionFuture.get(1000, TimeUnit.MILLISECONDS);
+
+        then(deliveryService.getByOrderLink(orderUri).get().getDeliveryOrderState()).isEqualTo(DeliveryOrderState.DONE);
+    }
+
     private void whenDeliveryStarted() throws InterruptedException, ExecutionException, TimeoutException {
         deliveryService.startDelivery(deliveryOrder.getOrderLink());
 
@@ -162,7 +192,6 @@ public class DeliveryServiceTest {
 
     private void givenMockedEventPublisher() {
         asyncInteractionFuture = new CompletableFuture<>();
-        mockServer.expect(requestTo(deliveryOrder.getOrderLink())).andRespond(withSuccess(orderResponse, MediaType.APPLICATION_JSON));
 
         //complete the future when deliveryEventPublisher.sendDeliveredEvent is called
         doAnswer(new Answer<Object>() {
@@ -175,6 +204,16 @@ public class DeliveryServiceTest {
 
     }
 
+    private void givenOrderServiceResponse() {
+        mockServer.expect(requestTo(deliveryOrder.getOrderLink())).andRespond(withSuccess(orderResponse, MediaType.APPLICATION_JSON));
+    }
+
+    private void givenOrderCreatedEventWithSnapshot() throws URISyntaxException {
+        Address address = new Address();
+        address.setFirstname("Mathias");
+        deliveryService.registerOrder(new OrderCreatedEvent(new URI("http://localhost/orders/1"), address));
+    }
+
     private void givenDeliveryOrder() throws URISyntaxException {
         URI orderUri = new URI("http://localhost/orders/1");
         deliveryOrder = new DeliveryOrder();
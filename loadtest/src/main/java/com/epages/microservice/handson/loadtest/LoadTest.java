@@ -0,0 +1,96 @@
+package com.epages.microservice.handson.loadtest;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.epages.microservice.handson.bakery.BakeryApplication;
+import com.epages.microservice.handson.catalog.CatalogApplication;
+import com.epages.microservice.handson.delivery.DeliveryApplication;
+import com.epages.microservice.handson.order.OrderApplication;
+import com.epages.microservice.handson.shared.event.InMemoryEventBus;
+import com.epages.microservice.handson.shared.tracing.HopLatency;
+import com.epages.microservice.handson.shared.tracing.SpanRepository;
+
+/**
+ * Runs catalog, order, bakery and delivery in this JVM, places orders at a fixed rate and reports how long it took
+ * until they were delivered, in total and per status, and how long every hop of the services took.
+ * <p>
+ * Configured with system properties:
+ * <ul>
+ * <li>{@code loadtest.rate} - orders per second, default 10</li>
+ * <li>{@code loadtest.duration-seconds} - how long to place orders, default 30</li>
+ * <li>{@code loadtest.drain-timeout-seconds} - how long to wait for the placed orders to be delivered, default 60</li>
+ * <li>{@code loadtest.clients} - concurrent requests, default 32</li>
+ * <li>{@code loadtest.<service>.<property>} - overrides a property of a service, e.g.
+ * {@code loadtest.bakery.bakery.timeToBakePizzaInMillis=1000}</li>
+ * </ul>
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        final double rate = Double.parseDouble(System.getProperty("loadtest.rate", "10"));
+        final long durationSeconds = Long.getLong("loadtest.duration-seconds", 30);
+        final long drainTimeoutSeconds = Long.getLong("loadtest.drain-timeout-seconds", 60);
+        final int clients = Integer.getInteger("loadtest.clients", 32);
+
+        final OrderTimelines timelines = new OrderTimelines();
+        final InMemoryEventBus eventBus = new InMemoryEventBus();
+        eventBus.addListener(timelines::onEvent);
+
+        // large enough to keep the spans of a whole run
+        final SpanRepository spanRepository = new SpanRepository(1_000_000);
+
+        try (ServiceCluster cluster = new ServiceCluster(eventBus, spanRepository)) {
+            cluster.start("catalog", CatalogApplication.class, properties("catalog"));
+            cluster.start("order", OrderApplication.class, properties("order"));
+            cluster.start("bakery", BakeryApplication.class, properties("bakery"));
+            cluster.start("delivery", DeliveryApplication.class, properties("delivery"));
+
+            final int placed;
+            final int failed;
+            try (OrderDriver driver = new OrderDriver(cluster.baseUri("order"),
+                    cluster.baseUri("catalog").resolve("pizzas/1"), timelines, clients)) {
+                System.out.printf("Placing %.1f orders per second for %d seconds%n", rate, durationSeconds);
+                placed = driver.run(rate, durationSeconds);
+                failed = driver.failed();
+            }
+
+            final long drainUntil = System.nanoTime() + SECONDS.toNanos(drainTimeoutSeconds);
+            while (timelines.delivered() < placed - failed && System.nanoTime() < drainUntil) {
+                Thread.sleep(100);
+            }
+
+            System.out.printf("%nplaced %d, failed %d, delivered %d%n%n", placed, failed, timelines.delivered());
+            System.out.print(timelines.report());
+            System.out.printf("%n%s", hopReport(spanRepository.getHopLatencies()));
+        }
+    }
+
+    private static String hopReport(List<HopLatency> hops) {
+        final StringBuilder report = new StringBuilder(String.format("%-48s %8s %8s %8s %8s %8s%n",
+                "hop latency in ms", "count", "p50", "p95", "p99", "max"));
+        for (HopLatency hop : hops) {
+            report.append(String.format("%-48s %8d %8.1f %8.1f %8.1f %8.1f%n", hop.getService() + " " + hop.getName(),
+                    hop.getCount(), hop.getP50(), hop.getP95(), hop.getP99(), hop.getMax()));
+        }
+        return report.toString();
+    }
+
+    private static Map<String, String> properties(String service) {
+        final Map<String, String> properties = new HashMap<>();
+        // bake and deliver quickly so that runs are short, the services' latency is what is measured
+        properties.put("bakery.timeToBakePizzaInMillis", "100");
+        properties.put("delivery.timeToPrepareDeliveryInMillis", "50");
+        properties.put("delivery.timeToDeliverInMillis", "100");
+        properties.put("order.outbox.poll-interval-millis", "50");
+
+        final String prefix = "loadtest." + service + ".";
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith(prefix))
+                .forEach(name -> properties.put(name.substring(prefix.length()), System.getProperty(name)));
+        return properties;
+    }
+}
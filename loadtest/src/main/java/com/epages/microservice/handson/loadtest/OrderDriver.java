@@ -0,0 +1,106 @@
+package com.epages.microservice.handson.loadtest;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Places orders at a fixed rate. The time of an order is when it was due, not when a client got to send it, so
+ * latencies include the time orders waited for a client when the services fall behind.
+ */
+class OrderDriver implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderDriver.class);
+
+    private final URI ordersUri;
+
+    private final Map<String, Object> order;
+
+    private final OrderTimelines timelines;
+
+    private final CloseableHttpClient httpClient;
+
+    private final RestTemplate restTemplate;
+
+    private final ExecutorService clients;
+
+    private final AtomicInteger failed = new AtomicInteger();
+
+    OrderDriver(URI orderServiceUri, URI pizzaUri, OrderTimelines timelines, int clients) {
+        this.ordersUri = orderServiceUri.resolve("orders");
+        this.order = ImmutableMap.of(
+                "orderItems", Collections.singletonList(ImmutableMap.of("pizza", pizzaUri.toString(), "amount", 1)),
+                "deliveryAddress", ImmutableMap.builder()
+                        .put("firstname", "Load")
+                        .put("lastname", "Test")
+                        .put("street", "Pizzastrasse 1")
+                        .put("city", "Hamburg")
+                        .put("postalCode", "22222")
+                        .put("telephone", "+4940123456")
+                        .build(),
+                "comment", "load test");
+        this.timelines = timelines;
+        this.httpClient = HttpClientBuilder.create().setMaxConnTotal(clients).setMaxConnPerRoute(clients).build();
+        this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        this.clients = Executors.newFixedThreadPool(clients,
+                new ThreadFactoryBuilder().setNameFormat("order-client-%d").setDaemon(true).build());
+    }
+
+    /**
+     * @return the number of orders placed
+     */
+    int run(double ordersPerSecond, long durationSeconds) throws InterruptedException {
+        final long intervalNanos = (long) (SECONDS.toNanos(1) / ordersPerSecond);
+        final int orders = (int) (ordersPerSecond * durationSeconds);
+        final long start = System.nanoTime();
+        for (int i = 0; i < orders; i++) {
+            final long dueAt = start + i * intervalNanos;
+            final long wait = dueAt - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            clients.execute(() -> placeOrder(dueAt));
+        }
+        clients.shutdown();
+        clients.awaitTermination(60, SECONDS);
+        return orders;
+    }
+
+    private void placeOrder(long dueAt) {
+        try {
+            final URI orderUri = restTemplate.postForLocation(ordersUri, order);
+            timelines.orderCreated(orderUri.toString(), dueAt, System.nanoTime());
+        } catch (RestClientException e) {
+            if (failed.getAndIncrement() == 0) {
+                LOGGER.warn("Could not place order", e);
+            }
+        }
+    }
+
+    int failed() {
+        return failed.get();
+    }
+
+    @Override
+    public void close() throws Exception {
+        clients.shutdownNow();
+        httpClient.close();
+    }
+}
@@ -0,0 +1,126 @@
+package com.epages.microservice.handson.loadtest;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+
+import com.epages.microservice.handson.order.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Records for every order when it entered which status, and reports latency percentiles. An order is NEW once it
+ * is created, it moves on when the order service would: with the events that change its status.
+ */
+class OrderTimelines {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderTimelines.class);
+
+    private static final Map<String, OrderStatus> STATUS_CHANGING_EVENTS = ImmutableMap.of(
+            "BakingOrderReceived", OrderStatus.BAKING,
+            "BakingFinished", OrderStatus.READY_FOR_DELIVERY,
+            "Delivered", OrderStatus.DELIVERED);
+
+    // the statuses an order passes, the last one ends its timeline
+    private static final List<OrderStatus> STAGES = Arrays.asList(
+            OrderStatus.NEW, OrderStatus.BAKING, OrderStatus.READY_FOR_DELIVERY, OrderStatus.DELIVERED);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // events may overtake the response of the order they are about, so timelines are keyed by the order link
+    private final ConcurrentMap<String, Timeline> timelines = new ConcurrentHashMap<>();
+
+    void orderCreated(String orderLink, long requestedAtNanos, long createdAtNanos) {
+        final Timeline timeline = timeline(orderLink);
+        timeline.requestedAt = requestedAtNanos;
+        timeline.enter(OrderStatus.NEW, createdAtNanos);
+    }
+
+    /**
+     * Listens to all events sent through the event bus.
+     */
+    void onEvent(String type, Message message) {
+        final OrderStatus status = STATUS_CHANGING_EVENTS.get(type);
+        if (status == null) {
+            return;
+        }
+        final long now = System.nanoTime();
+        try {
+            final String orderLink = objectMapper.readTree(message.getBody()).path("payload").path("orderLink").asText();
+            timeline(orderLink).enter(status, now);
+        } catch (IOException e) {
+            LOGGER.warn("Could not read '{}' event", type, e);
+        }
+    }
+
+    private Timeline timeline(String orderLink) {
+        return timelines.computeIfAbsent(orderLink, link -> new Timeline());
+    }
+
+    long delivered() {
+        return timelines.values().stream().filter(Timeline::isComplete).count();
+    }
+
+    String report() {
+        final List<Timeline> complete = timelines.values().stream().filter(Timeline::isComplete).collect(Collectors.toList());
+        final StringBuilder report = new StringBuilder(String.format("%-32s %8s %8s %8s %8s %8s%n",
+                "latency in ms", "p50", "p90", "p99", "max", "mean"));
+        appendPercentiles(report, "request to DELIVERED", complete, timeline -> timeline.entered(OrderStatus.DELIVERED) - timeline.requestedAt);
+        appendPercentiles(report, "request to NEW (POST /orders)", complete, timeline -> timeline.entered(OrderStatus.NEW) - timeline.requestedAt);
+        for (int i = 0; i < STAGES.size() - 1; i++) {
+            final OrderStatus stage = STAGES.get(i);
+            final OrderStatus next = STAGES.get(i + 1);
+            appendPercentiles(report, "in " + stage, complete, timeline -> timeline.entered(next) - timeline.entered(stage));
+        }
+        return report.toString();
+    }
+
+    private static void appendPercentiles(StringBuilder report, String name, Collection<Timeline> timelines,
+                                          ToLongFunction<Timeline> latency) {
+        final long[] millis = timelines.stream().mapToLong(latency).map(NANOSECONDS::toMillis).sorted().toArray();
+        if (millis.length == 0) {
+            report.append(String.format("%-32s %8s%n", name, "-"));
+            return;
+        }
+        report.append(String.format("%-32s %8d %8d %8d %8d %8.1f%n", name, percentile(millis, 50), percentile(millis, 90),
+                percentile(millis, 99), millis[millis.length - 1], Arrays.stream(millis).average().getAsDouble()));
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        // nearest rank
+        final int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private static final class Timeline {
+
+        private volatile long requestedAt;
+
+        private final Map<OrderStatus, Long> enteredAt = new EnumMap<>(OrderStatus.class);
+
+        private synchronized void enter(OrderStatus status, long nanos) {
+            enteredAt.putIfAbsent(status, nanos);
+        }
+
+        private synchronized long entered(OrderStatus status) {
+            return enteredAt.get(status);
+        }
+
+        private synchronized boolean isComplete() {
+            return requestedAt != 0 && enteredAt.keySet().containsAll(STAGES);
+        }
+    }
+}
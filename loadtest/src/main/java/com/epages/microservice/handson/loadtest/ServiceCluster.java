@@ -0,0 +1,74 @@
+package com.epages.microservice.handson.loadtest;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.embedded.EmbeddedWebApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import com.epages.microservice.handson.shared.event.InMemoryEventBus;
+import com.epages.microservice.handson.shared.tracing.SpanRepository;
+
+/**
+ * Runs services in this JVM, each in its own application context on a random port and with its own in-memory
+ * database. The contexts share a parent context that holds the {@link InMemoryEventBus}, so the services exchange
+ * their events through it instead of RabbitMQ, and the {@link SpanRepository}, so the spans of all services are
+ * collected in one place.
+ */
+class ServiceCluster implements AutoCloseable {
+
+    private final GenericApplicationContext parent = new GenericApplicationContext();
+
+    private final Map<String, ConfigurableApplicationContext> services = new LinkedHashMap<>();
+
+    ServiceCluster(InMemoryEventBus eventBus, SpanRepository spanRepository) {
+        parent.getBeanFactory().registerSingleton("inMemoryEventBus", eventBus);
+        parent.getBeanFactory().registerSingleton("spanRepository", spanRepository);
+        parent.refresh();
+    }
+
+    /**
+     * @param name the service name, its configuration is read from {@code services/<name>.yml}
+     * @param properties overrides of the service's configuration
+     */
+    void start(String name, Class<?> application, Map<String, String> properties) {
+        final List<String> args = new ArrayList<>();
+        args.add("--spring.config.location=classpath:/services/" + name + ".yml");
+        args.add("--server.port=0");
+        args.add("--spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        // the services would register their management beans under the same names
+        args.add("--spring.jmx.enabled=false");
+        args.add("--spring.main.show-banner=false");
+        args.add("--spring.jpa.show-sql=false");
+        args.add("--spring.jpa.properties.hibernate.show_sql=false");
+        args.add("--logging.level.com.epages=WARN");
+        args.add("--logging.level.org.springframework=WARN");
+        args.add("--logging.level.org.springframework.boot=WARN");
+        args.add("--logging.level.org.springframework.orm.jpa=WARN");
+        args.add("--logging.level.org.hibernate=WARN");
+        properties.forEach((key, value) -> args.add("--" + key + "=" + value));
+
+        services.put(name, new SpringApplicationBuilder(application)
+                .parent(parent)
+                .run(args.toArray(new String[args.size()])));
+    }
+
+    URI baseUri(String name) {
+        final EmbeddedWebApplicationContext service = (EmbeddedWebApplicationContext) services.get(name);
+        return URI.create("http://localhost:" + service.getEmbeddedServletContainer().getPort() + "/");
+    }
+
+    @Override
+    public void close() {
+        final List<ConfigurableApplicationContext> running = new ArrayList<>(services.values());
+        for (int i = running.size() - 1; i >= 0; i--) {
+            running.get(i).close();
+        }
+        parent.close();
+    }
+}
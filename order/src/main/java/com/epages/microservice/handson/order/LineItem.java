@@ -1,22 +1,27 @@
 package com.epages.microservice.handson.order;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
-import static javax.persistence.GenerationType.IDENTITY;
+import static javax.persistence.GenerationType.SEQUENCE;
 
 import java.io.Serializable;
 import java.net.URI;
 
 import javax.money.MonetaryAmount;
+import javax.persistence.AttributeOverride;
+import javax.persistence.AttributeOverrides;
 import javax.persistence.Basic;
 import javax.persistence.Column;
+import javax.persistence.Embedded;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
+import com.epages.microservice.handson.shared.money.EmbeddedMoney;
 import com.google.common.base.Objects;
 
 @Entity
@@ -26,7 +31,8 @@ public class LineItem implements Serializable {
     private static final long serialVersionUID = 3902307439011218750L;
 
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(strategy = SEQUENCE, generator = "LINE_ITEM_SEQ")
+    @SequenceGenerator(name = "LINE_ITEM_SEQ", sequenceName = "LINE_ITEM_SEQ", allocationSize = 50)
     @Column(name = "ID", nullable = false)
     private Long id;
 
@@ -42,9 +48,16 @@ public class LineItem implements Serializable {
     @Column(name = "AMOUNT", nullable = false)
     private Integer amount;
 
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "amount", column = @Column(name = "PRICE_AMOUNT")),
+            @AttributeOverride(name = "currency", column = @Column(name = "PRICE_CURRENCY", length = 3)) })
+    private EmbeddedMoney price;
+
+    // formatted price of line items stored before the numeric columns, see db/line-item-price.sql
     @Basic
-    @Column(name = "PRICE", length = 20, nullable = false)
-    private MonetaryAmount price;
+    @Column(name = "PRICE", length = 20)
+    private MonetaryAmount legacyPrice;
 
     public Long getId() {
         return id;
@@ -79,11 +92,12 @@ public class LineItem implements Serializable {
     }
 
     public MonetaryAmount getPrice() {
-        return price;
+        return price != null ? price.toMonetaryAmount() : legacyPrice;
     }
 
     public void setPrice(MonetaryAmount price) {
-        this.price = price;
+        this.price = EmbeddedMoney.of(price);
+        this.legacyPrice = null;
     }
 
     @Override
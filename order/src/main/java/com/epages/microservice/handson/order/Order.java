@@ -1,7 +1,7 @@
 package com.epages.microservice.handson.order;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
-import static javax.persistence.GenerationType.IDENTITY;
+import static javax.persistence.GenerationType.SEQUENCE;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
@@ -12,6 +12,8 @@ import java.util.List;
 import javax.money.MonetaryAmount;
 import javax.persistence.Access;
 import javax.persistence.AccessType;
+import javax.persistence.AttributeOverride;
+import javax.persistence.AttributeOverrides;
 import javax.persistence.Basic;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -23,10 +25,12 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.OneToMany;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
 import org.javamoney.moneta.Money;
 
+import com.epages.microservice.handson.shared.money.EmbeddedMoney;
 import com.google.common.base.Objects;
 
 @Entity
@@ -36,7 +40,8 @@ public class Order implements Serializable {
     private static final long serialVersionUID = -3578518882422353855L;
 
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(strategy = SEQUENCE, generator = "PIZZA_ORDER_SEQ")
+    @SequenceGenerator(name = "PIZZA_ORDER_SEQ", sequenceName = "PIZZA_ORDER_SEQ", allocationSize = 50)
     @Column(name = "ID", nullable = false)
     private Long id;
 
@@ -63,6 +68,18 @@ public class Order implements Serializable {
     @Embedded
     private Address deliveryAddress;
 
+    // chosen by the client, so that retrying a create whose response got lost does not create the order again
+    @Basic
+    @Column(name = "IDEMPOTENCY_KEY", length = 64, unique = true)
+    private String idempotencyKey;
+
+    // null until the items are priced, and for orders stored before the total was, see db/order-total-price.sql
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "amount", column = @Column(name = "TOTAL_PRICE_AMOUNT")),
+            @AttributeOverride(name = "currency", column = @Column(name = "TOTAL_PRICE_CURRENCY", length = 3)) })
+    private EmbeddedMoney totalPrice;
+
     public Long getId() {
         return id;
     }
@@ -99,6 +116,7 @@ public class Order implements Serializable {
     public void addItem(LineItem item) {
         item.setOrder(this);
         this.items.add(item);
+        this.totalPrice = null;
     }
 
     public String getComment() {
@@ -117,7 +135,27 @@ public class Order implements Serializable {
         this.deliveryAddress = deliveryAddress;
     }
 
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
     public MonetaryAmount getTotalPrice() {
+        return totalPrice != null ? totalPrice.toMonetaryAmount() : sumItemPrices();
+    }
+
+    /**
+     * Stores the total of the priced items, so that it is neither recomputed nor are the items needed to read it.
+     * Adding items discards a stored total.
+     */
+    public void calculateTotalPrice() {
+        this.totalPrice = EmbeddedMoney.of(sumItemPrices());
+    }
+
+    private MonetaryAmount sumItemPrices() {
         return items.stream().map(lineItem -> lineItem.getPrice().multiply(lineItem.getAmount())).reduce(MonetaryAmount::add)
                 .orElse(Money.of(0.0, "EUR"));
     }
@@ -4,14 +4,22 @@ import javax.validation.Validator;
 
 import org.springframework.amqp.rabbit.annotation.EnableRabbit;
 import org.springframework.boot.SpringApplication;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.web.config.EnableSpringDataWebSupport;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import com.epages.microservice.handson.shared.tracing.Tracer;
+import com.epages.microservice.handson.shared.tracing.TracingTaskExecutor;
 import com.epages.microservice.handson.shared.validation.ValidateAspect;
 
 @SpringBootApplication
 @EnableSpringDataWebSupport
+@EnableScheduling
+@EnableAsync
 @EnableRabbit // TODO really necessary? check shared EventAutoConfiguration
 public class OrderApplication {
     public static void main(String[] args) {
@@ -23,4 +31,17 @@ public class OrderApplication {
         return new ValidateAspect(validator);
     }
 
+    @Bean
+    ThreadPoolTaskExecutor orderThreadPoolTaskExecutor(@Value("${order.create.threads:16}") int threads,
+                                                       @Value("${order.create.queue-capacity:200}") int queueCapacity,
+                                                       Tracer tracer) {
+        ThreadPoolTaskExecutor threadPoolTaskExecutor = new TracingTaskExecutor(tracer);
+        threadPoolTaskExecutor.setCorePoolSize(threads);
+        threadPoolTaskExecutor.setMaxPoolSize(threads);
+        threadPoolTaskExecutor.setQueueCapacity(queueCapacity);
+        threadPoolTaskExecutor.setThreadNamePrefix("order-create-");
+
+        return threadPoolTaskExecutor;
+    }
+
 }
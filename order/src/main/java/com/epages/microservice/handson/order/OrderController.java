@@ -1,27 +1,41 @@
 package com.epages.microservice.handson.order;
 
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
 
 import java.net.URI;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityLinks;
 import org.springframework.hateoas.ExposesResourceFor;
+import org.springframework.hateoas.LinkBuilder;
 import org.springframework.hateoas.PagedResources;
+import org.springframework.hateoas.Resources;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
 @RestController
 @RequestMapping("/orders")
@@ -29,18 +43,28 @@ import org.springframework.web.bind.annotation.RestController;
 @CrossOrigin(exposedHeaders = "Location", value = "*")
 public class OrderController {
 
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private static final int IDEMPOTENCY_KEY_MAX_LENGTH = 64;
+
     private final OrderService orderService;
     private final EntityLinks entityLinks;
     private final OrderResourceAssembler orderResourceAssembler;
+    private final int bulkMaxSize;
+    private final long createTimeoutMillis;
 
     @Autowired
     public OrderController(OrderService orderService,
                            EntityLinks entityLinks,
-                           OrderResourceAssembler orderResourceAssembler) {
+                           OrderResourceAssembler orderResourceAssembler,
+                           @Value("${order.bulk.max-size:100}") int bulkMaxSize,
+                           @Value("${order.create.timeout-millis:10000}") long createTimeoutMillis) {
 
         this.orderService = orderService;
         this.entityLinks = entityLinks;
         this.orderResourceAssembler = orderResourceAssembler;
+        this.bulkMaxSize = bulkMaxSize;
+        this.createTimeoutMillis = createTimeoutMillis;
     }
 
     @RequestMapping(path = "/{id}", method = RequestMethod.GET)
@@ -51,6 +75,35 @@ public class OrderController {
                 .orElse(new ResponseEntity<>(NOT_FOUND));
     }
 
+    /**
+     * Reads many orders in one request, identified by id or by their self link. Unknown orders are left out.
+     */
+    @RequestMapping(path = "/bulk", method = GET)
+    public ResponseEntity<Resources<OrderResource>> getBulk(@RequestParam(value = "id", required = false) List<Long> ids,
+                                                            @RequestParam(value = "link", required = false) List<URI> links) {
+        final Set<Long> orderIds = new LinkedHashSet<>();
+        if (ids != null) {
+            orderIds.addAll(ids);
+        }
+        try {
+            if (links != null) {
+                links.forEach(link -> orderIds.add(orderId(link)));
+            }
+        } catch (NumberFormatException e) {
+            return new ResponseEntity<>(BAD_REQUEST);
+        }
+        if (orderIds.isEmpty() || orderIds.size() > bulkMaxSize) {
+            return new ResponseEntity<>(BAD_REQUEST);
+        }
+        final List<OrderResource> orders = orderResourceAssembler.toResources(orderService.getOrders(orderIds));
+        return ResponseEntity.ok(new Resources<>(orders));
+    }
+
+    private static Long orderId(URI orderLink) {
+        final String path = orderLink.getPath();
+        return Long.valueOf(path.substring(path.lastIndexOf('/') + 1));
+    }
+
     @RequestMapping(method = GET)
     public ResponseEntity<PagedResources<OrderResource>> getAll(Pageable pageable, PagedResourcesAssembler<Order> pagedResourcesAssembler) {
         final Page<Order> orders = orderService.getAll(pageable);
@@ -58,17 +111,61 @@ public class OrderController {
         return ResponseEntity.ok(body);
     }
 
+    /**
+     * Prices and stores the order off the request thread. A saturated executor or a creation that takes longer than
+     * the timeout is answered with 503 - in the latter case the order may still be created. Clients that send an
+     * {@code Idempotency-Key} can safely retry such requests with the same key: an order that was already created
+     * with the key is answered with its location instead of being created again.
+     */
     @RequestMapping(method = RequestMethod.POST)
-    public ResponseEntity<Void> create(@RequestBody @Valid OrderResource orderResource) {
+    public DeferredResult<ResponseEntity<Void>> create(@RequestBody @Valid OrderResource orderResource,
+                                                       @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        final DeferredResult<ResponseEntity<Void>> result = new DeferredResult<>(createTimeoutMillis,
+                new ResponseEntity<Void>(SERVICE_UNAVAILABLE));
+        if (idempotencyKey != null && idempotencyKey.length() > IDEMPOTENCY_KEY_MAX_LENGTH) {
+            result.setResult(new ResponseEntity<>(BAD_REQUEST));
+            return result;
+        }
+        // bound to the current request, so it cannot be created on the executor's thread
+        final LinkBuilder orders = entityLinks.linkFor(Order.class);
+        final Optional<Order> existingOrder = idempotencyKey != null
+                ? orderService.getOrderByIdempotencyKey(idempotencyKey) : Optional.empty();
+        if (existingOrder.isPresent()) {
+            result.setResult(created(orders, existingOrder.get()));
+            return result;
+        }
+
         Order order = new Order();
         order.setDeliveryAddress(orderResource.getDeliveryAddress().toEntity());
         order.setComment(orderResource.getComment());
         order.setItems(orderResource.getOrderItems().stream()
                 .map(LineItemResource::toEntity)
                 .collect(Collectors.toList()));
-        order = orderService.create(order);
-        URI location = entityLinks.linkForSingleResource(Order.class, order.getId()).toUri();
-        return ResponseEntity.created(location).build();
+        order.setIdempotencyKey(idempotencyKey);
+
+        try {
+            orderService.createAsync(order, orders).whenComplete((createdOrder, e) -> {
+                if (e == null) {
+                    result.setResult(created(orders, createdOrder));
+                    return;
+                }
+                // a concurrent request with the same key may have created the order meanwhile
+                final Optional<Order> concurrentOrder = idempotencyKey != null
+                        ? orderService.getOrderByIdempotencyKey(idempotencyKey) : Optional.empty();
+                if (concurrentOrder.isPresent()) {
+                    result.setResult(created(orders, concurrentOrder.get()));
+                } else {
+                    result.setErrorResult(e instanceof CompletionException ? e.getCause() : e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            result.setResult(new ResponseEntity<>(SERVICE_UNAVAILABLE));
+        }
+        return result;
+    }
+
+    private static ResponseEntity<Void> created(LinkBuilder orders, Order order) {
+        return ResponseEntity.created(orders.slash(order.getId()).toUri()).build();
     }
 
 }
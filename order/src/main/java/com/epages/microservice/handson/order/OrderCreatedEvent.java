@@ -0,0 +1,122 @@
+package com.epages.microservice.handson.order;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.stream.Collectors.toList;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Carries a snapshot of the new order, so subscribers never need to call back to the order service.
+ * Increase {@link #SNAPSHOT_VERSION} whenever the snapshot changes incompatibly.
+ */
+public class OrderCreatedEvent {
+
+    public static final int SNAPSHOT_VERSION = 1;
+
+    private int version = SNAPSHOT_VERSION;
+
+    private URI orderLink;
+
+    private List<Item> items = new ArrayList<>();
+
+    private Address deliveryAddress;
+
+    private String comment;
+
+    public OrderCreatedEvent() {
+    }
+
+    public OrderCreatedEvent(URI orderLink) {
+        this.orderLink = orderLink;
+    }
+
+    public OrderCreatedEvent(URI orderLink, Order order) {
+        this.orderLink = orderLink;
+        this.items = order.getItems().stream().map(lineItem -> new Item(lineItem.getPizza(), lineItem.getAmount())).collect(toList());
+        this.deliveryAddress = order.getDeliveryAddress();
+        this.comment = order.getComment();
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public URI getOrderLink() {
+        return orderLink;
+    }
+
+    public void setOrderLink(URI orderLink) {
+        this.orderLink = orderLink;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+
+    public Address getDeliveryAddress() {
+        return deliveryAddress;
+    }
+
+    public void setDeliveryAddress(Address deliveryAddress) {
+        this.deliveryAddress = deliveryAddress;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public void setComment(String comment) {
+        this.comment = comment;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this).add("version", version).add("orderLink", orderLink).add("items", items).toString();
+    }
+
+    public static class Item {
+
+        private URI pizza;
+
+        private Integer amount;
+
+        public Item() {
+        }
+
+        public Item(URI pizza, Integer amount) {
+            this.pizza = pizza;
+            this.amount = amount;
+        }
+
+        public URI getPizza() {
+            return pizza;
+        }
+
+        public void setPizza(URI pizza) {
+            this.pizza = pizza;
+        }
+
+        public Integer getAmount() {
+            return amount;
+        }
+
+        public void setAmount(Integer amount) {
+            this.amount = amount;
+        }
+
+        @Override
+        public String toString() {
+            return toStringHelper(this).add("pizza", pizza).add("amount", amount).toString();
+        }
+    }
+}
@@ -1,32 +1,53 @@
 package com.epages.microservice.handson.order;
 
-import java.util.Map;
+import java.net.URI;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.EntityLinks;
 import org.springframework.stereotype.Component;
 
-import com.epages.microservice.handson.shared.event.EventPublisher;
-import com.google.common.collect.ImmutableMap;
+import com.epages.microservice.handson.order.outbox.OutboxEvent;
+import com.epages.microservice.handson.order.outbox.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
+/**
+ * Stages order events in the outbox within the caller's transaction, the outbox relay
+ * publishes them once the transaction committed.
+ */
 @Component
 public class OrderEventPublisher {
 
-    private final EventPublisher eventPublisher;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectWriter orderCreatedEventWriter;
     private final EntityLinks entityLinks;
 
     private static final String ORDER_CREATED_EVENT_TYPE = "OrderCreated";
 
     @Autowired
-    public  OrderEventPublisher(EventPublisher eventPublisher, EntityLinks entityLinks) {
-        this.eventPublisher = eventPublisher;
+    public  OrderEventPublisher(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper, EntityLinks entityLinks) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.orderCreatedEventWriter = objectMapper.writerFor(OrderCreatedEvent.class);
         this.entityLinks = entityLinks;
     }
 
     public void sendOrderCreatedEvent(final Order order) {
-        Map<String, Object> payloadMap = ImmutableMap.of(
-                "orderLink", entityLinks.linkForSingleResource(Order.class, order.getId()).toUri().toString());
-        eventPublisher.publish(ORDER_CREATED_EVENT_TYPE, payloadMap);
+        sendOrderCreatedEvent(order, entityLinks.linkForSingleResource(Order.class, order.getId()).toUri());
     }
 
+    /**
+     * For orders created off the request thread, the order link cannot be built there.
+     */
+    public void sendOrderCreatedEvent(final Order order, final URI orderLink) {
+        stage(ORDER_CREATED_EVENT_TYPE, orderCreatedEventWriter, new OrderCreatedEvent(orderLink, order));
+    }
+
+    private void stage(String type, ObjectWriter writer, Object payload) {
+        try {
+            outboxEventRepository.save(new OutboxEvent(type, writer.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(String.format("Could not serialize event of type '%s'", type), e);
+        }
+    }
 }
@@ -1,6 +1,30 @@
 package com.epages.microservice.handson.order;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    @Query("select distinct o from Order o left join fetch o.items where o.id in :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    Order findByIdempotencyKey(String idempotencyKey);
+
+    @Modifying
+    @Query("update Order o set o.status = :status where o.id = :id and o.status in :fromStatuses")
+    int updateStatus(@Param("id") Long id,
+                     @Param("status") OrderStatus status,
+                     @Param("fromStatuses") Collection<OrderStatus> fromStatuses);
+
+    // not guarded by the status, the estimate is kept even if a later status arrived first
+    @Modifying
+    @Query("update Order o set o.estimatedTimeOfDelivery = :estimatedTimeOfDelivery where o.id = :id")
+    int updateEstimatedTimeOfDelivery(@Param("id") Long id,
+                                      @Param("estimatedTimeOfDelivery") LocalDateTime estimatedTimeOfDelivery);
 }
@@ -1,15 +1,44 @@
 package com.epages.microservice.handson.order;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.hateoas.LinkBuilder;
 
 public interface OrderService {
 
     Order create(Order order);
+
+    /**
+     * Creates the order on the order executor.
+     *
+     * @param orders links to the orders, built on the request thread as links are relative to the current request
+     * @throws org.springframework.core.task.TaskRejectedException if the executor is saturated
+     */
+    CompletableFuture<Order> createAsync(Order order, LinkBuilder orders);
     Order update(Order order);
     Optional<Order> getOrder(Long id);
+    Optional<Order> getOrderByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * @return the orders that exist, in no particular order
+     */
+    List<Order> getOrders(Collection<Long> ids);
     Page<Order> getAll(Pageable pageable);
-    void setOrderStatus(Long id, OrderStatus status);
+
+    /**
+     * @return false if the order does not exist or already moved past the status
+     */
+    boolean setOrderStatus(Long id, OrderStatus status);
+
+    /**
+     * Applies the transitions in one transaction with a single update statement each.
+     *
+     * @return the number of transitions that applied
+     */
+    int applyStatusTransitions(List<OrderStatusTransition> transitions);
 }
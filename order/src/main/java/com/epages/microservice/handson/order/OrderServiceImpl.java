@@ -1,16 +1,28 @@
 package com.epages.microservice.handson.order;
 
+import static java.util.stream.Collectors.toList;
+
+import java.net.URI;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.hateoas.LinkBuilder;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @Transactional(propagation = Propagation.REQUIRED)
@@ -19,37 +31,66 @@ class OrderServiceImpl implements OrderService {
     private static final Logger LOGGER = LoggerFactory.getLogger(OrderServiceImpl.class);
 
     private final OrderRepository orderRepository;
-    private final PizzaClientService pizzaClientService;
+    private final PizzaCatalog pizzaCatalog;
     private final OrderEventPublisher orderEventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
     public OrderServiceImpl(OrderRepository orderRepository,
-                            PizzaClientService pizzaClientService,
-                            OrderEventPublisher orderEventPublisher) {
+                            PizzaCatalog pizzaCatalog,
+                            OrderEventPublisher orderEventPublisher,
+                            PlatformTransactionManager transactionManager) {
         this.orderRepository = orderRepository;
-        this.pizzaClientService = pizzaClientService;
+        this.pizzaCatalog = pizzaCatalog;
         this.orderEventPublisher = orderEventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
+    /**
+     * Prices the order before the transaction that saves it, so no connection is held while the catalog is called.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Order create(Order order) {
+        price(order);
+        return transactionTemplate.execute(status -> {
+            Order savedOrder = save(order);
+            orderEventPublisher.sendOrderCreatedEvent(savedOrder);
+            return savedOrder;
+        });
+    }
+
+    @Override
+    @Async("orderThreadPoolTaskExecutor")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Order> createAsync(Order order, LinkBuilder orders) {
+        price(order);
+        Order savedOrder = transactionTemplate.execute(status -> {
+            Order saved = save(order);
+            orderEventPublisher.sendOrderCreatedEvent(saved, orders.slash(saved.getId()).toUri());
+            return saved;
+        });
+        return CompletableFuture.completedFuture(savedOrder);
+    }
+
+    private void price(Order order) {
         if (order.getItems().isEmpty()) {
             throw new IllegalArgumentException("order does not have items");
         }
         getLineItemPrices(order);
+        order.calculateTotalPrice();
+    }
+
+    private Order save(Order order) {
         order.setOrderedAt(LocalDateTime.now());
         Order savedOrder = orderRepository.saveAndFlush(order);
-
-        orderEventPublisher.sendOrderCreatedEvent(savedOrder);
         LOGGER.info("order created {}", order);
         return savedOrder;
     }
 
     private void getLineItemPrices(Order order) {
-        order.getItems().forEach(lineItem -> {
-            Pizza pizza = pizzaClientService.getPizza(lineItem.getPizza());
-            lineItem.setPrice(pizza.getPrice());
-        });
+        Map<URI, Pizza> pizzas = pizzaCatalog.getPizzas(order.getItems().stream().map(LineItem::getPizza).collect(toList()));
+        order.getItems().forEach(lineItem -> lineItem.setPrice(pizzas.get(lineItem.getPizza()).getPrice()));
     }
 
     @Override
@@ -62,16 +103,49 @@ class OrderServiceImpl implements OrderService {
         return Optional.ofNullable(orderRepository.findOne(id));
     }
 
+    @Override
+    public Optional<Order> getOrderByIdempotencyKey(String idempotencyKey) {
+        return Optional.ofNullable(orderRepository.findByIdempotencyKey(idempotencyKey));
+    }
+
+    @Override
+    public List<Order> getOrders(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return orderRepository.findAllWithItemsByIdIn(ids);
+    }
+
     @Override
     public Page<Order> getAll(Pageable pageable) {
         return orderRepository.findAll(pageable);
     }
 
     @Override
-    public void setOrderStatus(Long id, OrderStatus status) {
-        Order order = getOrder(id)
-                .orElseThrow(() -> new IllegalArgumentException(String.format("Order %s not found", id)));
-        order.setStatus(status);
-        update(order);
+    public boolean setOrderStatus(Long id, OrderStatus status) {
+        return applyStatusTransition(new OrderStatusTransition(id, status));
+    }
+
+    @Override
+    public int applyStatusTransitions(List<OrderStatusTransition> transitions) {
+        int applied = 0;
+        for (OrderStatusTransition transition : transitions) {
+            if (applyStatusTransition(transition)) {
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    private boolean applyStatusTransition(OrderStatusTransition transition) {
+        final OrderStatus status = transition.getStatus();
+        if (transition.getEstimatedTimeOfDelivery() != null) {
+            orderRepository.updateEstimatedTimeOfDelivery(transition.getOrderId(), transition.getEstimatedTimeOfDelivery());
+        }
+        final int updated = orderRepository.updateStatus(transition.getOrderId(), status, status.reachableFrom());
+        if (updated == 0) {
+            LOGGER.info("Ignoring the status of {}, the order does not exist or is already past {}", transition, status);
+        }
+        return updated > 0;
     }
 }
@@ -1,5 +1,8 @@
 package com.epages.microservice.handson.order;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum OrderStatus {
 
     NEW,
@@ -7,4 +10,11 @@ public enum OrderStatus {
     READY_FOR_DELIVERY,
     IN_DELIVERY,
     DELIVERED;
+
+    /**
+     * @return the statuses an order can move on to this one from - orders never move backwards
+     */
+    public Set<OrderStatus> reachableFrom() {
+        return EnumSet.range(NEW, this);
+    }
 }
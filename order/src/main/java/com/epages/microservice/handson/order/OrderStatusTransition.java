@@ -0,0 +1,45 @@
+package com.epages.microservice.handson.order;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+import java.time.LocalDateTime;
+
+/**
+ * Moves an order on to a status, optionally updating its estimated time of delivery along the way.
+ */
+public class OrderStatusTransition {
+
+    private final Long orderId;
+
+    private final OrderStatus status;
+
+    private final LocalDateTime estimatedTimeOfDelivery;
+
+    public OrderStatusTransition(Long orderId, OrderStatus status) {
+        this(orderId, status, null);
+    }
+
+    public OrderStatusTransition(Long orderId, OrderStatus status, LocalDateTime estimatedTimeOfDelivery) {
+        this.orderId = orderId;
+        this.status = status;
+        this.estimatedTimeOfDelivery = estimatedTimeOfDelivery;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getEstimatedTimeOfDelivery() {
+        return estimatedTimeOfDelivery;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this).add("orderId", orderId).add("status", status)
+                .add("estimatedTimeOfDelivery", estimatedTimeOfDelivery).toString();
+    }
+}
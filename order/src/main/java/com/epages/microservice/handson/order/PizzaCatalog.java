@@ -0,0 +1,109 @@
+package com.epages.microservice.handson.order;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Local cache of the catalog's pizzas. Pizzas that are not cached yet are looked up concurrently, each URI once -
+ * also across orders that are created at the same time.
+ */
+@Component
+public class PizzaCatalog implements DisposableBean {
+
+    private final PizzaClientService pizzaClientService;
+
+    private final long lookupTimeoutMillis;
+
+    private final ExecutorService lookupExecutor;
+
+    // holds pending lookups as well, failed ones are evicted right away
+    private final Cache<URI, CompletableFuture<Pizza>> pizzas;
+
+    @Autowired
+    public PizzaCatalog(PizzaClientService pizzaClientService,
+                        @Value("${order.catalog.cache-size:1000}") long cacheSize,
+                        @Value("${order.catalog.cache-ttl-seconds:300}") long cacheTtlSeconds,
+                        @Value("${order.catalog.lookup-threads:8}") int lookupThreads,
+                        @Value("${order.catalog.lookup-timeout-millis:3000}") long lookupTimeoutMillis) {
+        this.pizzaClientService = pizzaClientService;
+        this.lookupTimeoutMillis = lookupTimeoutMillis;
+        this.lookupExecutor = new ThreadPoolExecutor(lookupThreads, lookupThreads, 0L, MILLISECONDS,
+                new ArrayBlockingQueue<>(lookupThreads * 16),
+                new ThreadFactoryBuilder().setNameFormat("pizza-lookup-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.pizzas = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtlSeconds, SECONDS)
+                .build();
+    }
+
+    public Map<URI, Pizza> getPizzas(Collection<URI> pizzaUris) {
+        final Map<URI, CompletableFuture<Pizza>> lookups = new LinkedHashMap<>();
+        new LinkedHashSet<>(pizzaUris).forEach(pizzaUri -> lookups.put(pizzaUri, lookup(pizzaUri)));
+        try {
+            CompletableFuture.allOf(lookups.values().toArray(new CompletableFuture<?>[lookups.size()]))
+                    .get(lookupTimeoutMillis, MILLISECONDS);
+        } catch (ExecutionException e) {
+            // the asynchronous eviction may not have run yet, a retry must not see the failed lookup
+            lookups.forEach((pizzaUri, lookup) -> {
+                if (lookup.isCompletedExceptionally()) {
+                    pizzas.asMap().remove(pizzaUri, lookup);
+                }
+            });
+            throw Throwables.propagate(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ResourceAccessException(String.format("Pizzas %s could not be looked up within %s ms",
+                    lookups.keySet(), lookupTimeoutMillis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while looking up pizzas");
+        }
+        final Map<URI, Pizza> result = new LinkedHashMap<>();
+        lookups.forEach((pizzaUri, lookup) -> result.put(pizzaUri, lookup.join()));
+        return result;
+    }
+
+    private CompletableFuture<Pizza> lookup(URI pizzaUri) {
+        try {
+            return pizzas.get(pizzaUri, () -> {
+                CompletableFuture<Pizza> lookup = CompletableFuture.supplyAsync(() -> pizzaClientService.getPizza(pizzaUri), lookupExecutor);
+                lookup.whenComplete((pizza, e) -> {
+                    if (e != null) {
+                        pizzas.asMap().remove(pizzaUri, lookup);
+                    }
+                });
+                return lookup;
+            });
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        lookupExecutor.shutdownNow();
+    }
+}
@@ -7,12 +7,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
-public class BakingFinishedEventSubscriber extends OrderStatusEventSubscriber {
+public class BakingFinishedEventSubscriber extends OrderStatusEventSubscriber<OrderStatusEvent> {
 
     private static final String BAKING_FINISHED_EVENT_TYPE = "BakingFinished";
 
     @Autowired
     public BakingFinishedEventSubscriber(ObjectMapper objectMapper, OrderService orderService) {
-        super(orderService, objectMapper, BAKING_FINISHED_EVENT_TYPE, OrderStatus.READY_FOR_DELIVERY);
+        super(orderService, objectMapper, BAKING_FINISHED_EVENT_TYPE, OrderStatusEvent.class, OrderStatus.READY_FOR_DELIVERY);
     }
 }
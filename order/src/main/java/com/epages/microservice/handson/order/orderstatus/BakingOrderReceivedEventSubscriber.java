@@ -7,12 +7,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
-public class BakingOrderReceivedEventSubscriber extends OrderStatusEventSubscriber {
+public class BakingOrderReceivedEventSubscriber extends OrderStatusEventSubscriber<OrderStatusEvent> {
 
     private static final String BAKING_ORDER_RECEIVED_EVENT_TYPE = "BakingOrderReceived";
 
     @Autowired
     public BakingOrderReceivedEventSubscriber(OrderService orderService, ObjectMapper objectMapper) {
-        super(orderService, objectMapper, BAKING_ORDER_RECEIVED_EVENT_TYPE, OrderStatus.BAKING);
+        super(orderService, objectMapper, BAKING_ORDER_RECEIVED_EVENT_TYPE, OrderStatusEvent.class, OrderStatus.BAKING);
     }
 }
@@ -7,12 +7,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
-public class DeliveredEventSubscriber extends OrderStatusEventSubscriber {
+public class DeliveredEventSubscriber extends OrderStatusEventSubscriber<OrderStatusEvent> {
 
     private static final String DELIVERED_EVENT_TYPE = "Delivered";
 
     @Autowired
     public DeliveredEventSubscriber(ObjectMapper objectMapper, OrderService orderService) {
-        super(orderService, objectMapper, DELIVERED_EVENT_TYPE, OrderStatus.DELIVERED);
+        super(orderService, objectMapper, DELIVERED_EVENT_TYPE, OrderStatusEvent.class, OrderStatus.DELIVERED);
     }
 }
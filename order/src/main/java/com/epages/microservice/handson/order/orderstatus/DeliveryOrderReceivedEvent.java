@@ -0,0 +1,24 @@
+package com.epages.microservice.handson.order.orderstatus;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+import java.time.LocalDateTime;
+
+public class DeliveryOrderReceivedEvent extends OrderStatusEvent {
+
+    private LocalDateTime estimatedTimeOfDelivery;
+
+    public LocalDateTime getEstimatedTimeOfDelivery() {
+        return estimatedTimeOfDelivery;
+    }
+
+    public void setEstimatedTimeOfDelivery(LocalDateTime estimatedTimeOfDelivery) {
+        this.estimatedTimeOfDelivery = estimatedTimeOfDelivery;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this).add("orderLink", getOrderLink())
+                .add("estimatedTimeOfDelivery", estimatedTimeOfDelivery).toString();
+    }
+}
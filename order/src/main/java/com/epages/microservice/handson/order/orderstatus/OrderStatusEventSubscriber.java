@@ -1,19 +1,20 @@
 package com.epages.microservice.handson.order.orderstatus;
 
+import static java.util.stream.Collectors.toList;
+
 import java.net.URI;
-import java.util.Map;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.epages.microservice.handson.order.Order;
 import com.epages.microservice.handson.order.OrderService;
 import com.epages.microservice.handson.order.OrderStatus;
-import com.epages.microservice.handson.shared.event.AbstractEventSubscriber;
+import com.epages.microservice.handson.order.OrderStatusTransition;
+import com.epages.microservice.handson.shared.event.AbstractBatchEventSubscriber;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.base.Strings;
 
-public abstract class OrderStatusEventSubscriber extends AbstractEventSubscriber {
+public abstract class OrderStatusEventSubscriber<T extends OrderStatusEvent> extends AbstractBatchEventSubscriber<T> {
 
     private final OrderService orderService;
     private final OrderStatus orderStatus;
@@ -22,45 +23,40 @@ public abstract class OrderStatusEventSubscriber extends AbstractEventSubscriber
 
     protected OrderStatusEventSubscriber(OrderService orderService,
                                          ObjectMapper objectMapper,
-                                         String type, OrderStatus orderStatus) {
-        super(objectMapper, type);
+                                         String type, Class<T> payloadType, OrderStatus orderStatus) {
+        super(objectMapper, type, payloadType);
         this.orderService = orderService;
         this.orderStatus = orderStatus;
     }
 
     @Override
-    protected void handleOwnType(Map<String, Object> event) {
-        Map<String, Object> payload = getPayload(event);
-        Long orderId = getOrderIdFromPayload(payload, event);
-        Order order = orderService.getOrder(orderId)
-                .orElseThrow(() -> new IllegalArgumentException(String.format("Order %s not found", orderId)));
-
-        enhanceOrder(order, payload);
-
-        order.setStatus(orderStatus);
-        orderService.update(order);
-        LOGGER.info("Consumed {} event with payload '{}'", super.type, payload);
+    protected void handleOwnTypes(List<T> payloads) {
+        List<OrderStatusTransition> transitions = payloads.stream()
+                .map(payload -> createTransition(getOrderIdFromPayload(payload), orderStatus, payload))
+                .collect(toList());
 
+        int applied = orderService.applyStatusTransitions(transitions);
+        LOGGER.info("Consumed {} {} events, {} of them changed an order", payloads.size(), super.type, applied);
     }
 
-    protected void enhanceOrder(Order order, Map<String, Object> payload) {
+    protected OrderStatusTransition createTransition(Long orderId, OrderStatus status, T payload) {
         //add logic in implementation if needed
-    };
+        return new OrderStatusTransition(orderId, status);
+    }
 
-    private Long getOrderIdFromPayload(Map<String, Object> payload, Map<String, Object> event) {
-        String orderUriString = (String) payload.get("orderLink");
-        if (Strings.isNullOrEmpty(orderUriString)) {
-            LOGGER.error("Event {} does not contain an orderLink", event);
-            throw new IllegalArgumentException(String.format("Event %s does not contain an orderLink", event));
+    private Long getOrderIdFromPayload(T payload) {
+        URI orderUri = payload.getOrderLink();
+        if (orderUri == null) {
+            LOGGER.error("Event {} with payload {} does not contain an orderLink", super.type, payload);
+            throw new IllegalArgumentException(String.format("Event %s with payload %s does not contain an orderLink", super.type, payload));
         }
-        URI orderUri = URI.create(orderUriString);
 
         String[] pathItems = orderUri.getPath().split("/");
         if (pathItems != null && pathItems.length > 1) {
             String idPart = pathItems[pathItems.length - 1];
             return Long.valueOf(idPart);
         } else {
-            throw new IllegalArgumentException(String.format("orderLink %s in event %s does not contain an id", orderUriString, event));
+            throw new IllegalArgumentException(String.format("orderLink %s in event %s does not contain an id", orderUri, payload));
         }
     }
 }
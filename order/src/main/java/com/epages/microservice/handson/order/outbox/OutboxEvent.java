@@ -0,0 +1,143 @@
+package com.epages.microservice.handson.order.outbox;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static javax.persistence.GenerationType.IDENTITY;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import javax.persistence.Basic;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+
+import com.epages.microservice.handson.shared.event.EventPublisher;
+import com.epages.microservice.handson.shared.tracing.Span;
+import com.epages.microservice.handson.shared.tracing.Tracer;
+import com.google.common.base.Objects;
+
+/**
+ * An event that is written in the transaction that caused it and published later by the {@link OutboxRelay}.
+ */
+@Entity
+@Table(name = "EVENT_OUTBOX")
+public class OutboxEvent implements Serializable {
+
+    private static final long serialVersionUID = -2473017735405312458L;
+
+    @Id
+    @GeneratedValue(strategy = IDENTITY)
+    @Column(name = "ID", nullable = false)
+    private Long id;
+
+    @Basic
+    @Column(name = "EVENT_ID", length = 36, nullable = false, unique = true)
+    private String eventId;
+
+    @Basic
+    @Column(name = "TYPE", length = 255, nullable = false)
+    private String type;
+
+    @Lob
+    @Column(name = "PAYLOAD", nullable = false)
+    private String payload;
+
+    @Basic
+    @Column(name = "CREATED_AT", nullable = false)
+    private LocalDateTime createdAt;
+
+    // the trace the event was written in, so the relay continues it when it publishes the event
+    @Basic
+    @Column(name = "TRACE_ID", length = 16)
+    private String traceId;
+
+    @Basic
+    @Column(name = "SPAN_ID", length = 16)
+    private String spanId;
+
+    // the relay run that publishes the event, other relay instances leave it alone until the claim expired
+    @Basic
+    @Column(name = "CLAIM_TOKEN", length = 36)
+    private String claimToken;
+
+    @Basic
+    @Column(name = "CLAIMED_UNTIL")
+    private LocalDateTime claimedUntil;
+
+    protected OutboxEvent() {
+    }
+
+    public OutboxEvent(String type, String payload) {
+        this.eventId = EventPublisher.newEventId();
+        this.type = type;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+        final Span span = Tracer.currentSpan();
+        if (span != null) {
+            this.traceId = span.getTraceId();
+            this.spanId = span.getSpanId();
+        }
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public String getClaimToken() {
+        return claimToken;
+    }
+
+    public LocalDateTime getClaimedUntil() {
+        return claimedUntil;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        OutboxEvent outboxEvent = (OutboxEvent) o;
+        return Objects.equal(id, outboxEvent.getId());
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this).add("id", id).add("eventId", eventId).add("type", type).add("createdAt", createdAt)
+                .add("traceId", traceId).toString();
+    }
+}
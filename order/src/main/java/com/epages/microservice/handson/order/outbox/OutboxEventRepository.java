@@ -0,0 +1,35 @@
+package com.epages.microservice.handson.order.outbox;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("select e from OutboxEvent e where e.claimedUntil is null or e.claimedUntil < :now order by e.id asc")
+    List<OutboxEvent> findUnclaimed(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // only claims events that are still unclaimed, a relay that claimed them meanwhile keeps them
+    @Modifying
+    @Transactional
+    @Query("update OutboxEvent e set e.claimToken = :claimToken, e.claimedUntil = :claimedUntil "
+            + "where e.id in :ids and (e.claimedUntil is null or e.claimedUntil < :now)")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("claimToken") String claimToken,
+              @Param("now") LocalDateTime now,
+              @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    List<OutboxEvent> findAllByClaimTokenOrderByIdAsc(String claimToken);
+
+    @Modifying
+    @Transactional
+    @Query("update OutboxEvent e set e.claimToken = null, e.claimedUntil = null where e.id in :ids")
+    int release(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,159 @@
+package com.epages.microservice.handson.order.outbox;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.stream.Collectors.toList;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.epages.microservice.handson.shared.event.EventPublisher;
+import com.epages.microservice.handson.shared.tracing.Span;
+import com.epages.microservice.handson.shared.tracing.Tracer;
+
+/**
+ * Drains the outbox to the broker in insertion order. An event is only removed from the outbox once the broker
+ * confirmed it, so events are delivered at least once - a crash between confirm and delete sends them again,
+ * under the same event id so that subscribers can drop the duplicate.
+ * <p>
+ * Each run claims the events it publishes, so that relays of several order instances do not publish the same events.
+ * A claim expires after the claim timeout, which frees the events of a relay that crashed. The timeout has to cover
+ * publishing a batch and the clock skew between the instances, so it must be at least twice the confirm timeout.
+ * With several instances, events are published in insertion order per batch only.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventPublisher eventPublisher;
+    private final int batchSize;
+    private final long confirmTimeoutMillis;
+    private final long claimTimeoutMillis;
+    private Tracer tracer;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       EventPublisher eventPublisher,
+                       @Value("${order.outbox.batch-size:100}") int batchSize,
+                       @Value("${order.outbox.confirm-timeout-millis:10000}") long confirmTimeoutMillis,
+                       @Value("${order.outbox.claim-timeout-millis:60000}") long claimTimeoutMillis) {
+        checkArgument(claimTimeoutMillis >= 2 * confirmTimeoutMillis,
+                "claim timeout of %s ms does not leave room for a confirm timeout of %s ms", claimTimeoutMillis,
+                confirmTimeoutMillis);
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.confirmTimeoutMillis = confirmTimeoutMillis;
+        this.claimTimeoutMillis = claimTimeoutMillis;
+    }
+
+    @Autowired(required = false)
+    public void setTracer(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.poll-interval-millis:500}")
+    public void relay() {
+        List<OutboxEvent> events;
+        do {
+            events = claim();
+        } while (!events.isEmpty() && relay(events) == events.size() && events.size() == batchSize);
+    }
+
+    /**
+     * @return the oldest unclaimed events that this run claimed, without those another relay claimed first
+     */
+    private List<OutboxEvent> claim() {
+        final LocalDateTime now = LocalDateTime.now();
+        final List<Long> ids = outboxEventRepository.findUnclaimed(now, new PageRequest(0, batchSize)).stream()
+                .map(OutboxEvent::getId)
+                .collect(toList());
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final String claimToken = UUID.randomUUID().toString();
+        if (outboxEventRepository.claim(ids, claimToken, now, now.plus(claimTimeoutMillis, ChronoUnit.MILLIS)) == 0) {
+            return Collections.emptyList();
+        }
+        return outboxEventRepository.findAllByClaimTokenOrderByIdAsc(claimToken);
+    }
+
+    /**
+     * @return the number of events that were published and removed from the outbox
+     */
+    int relay(List<OutboxEvent> events) {
+        // the whole batch shares one confirm timeout, so that it is relayed well within its claim
+        final long confirmDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMillis);
+        final List<CompletableFuture<Void>> confirmations = events.stream().map(this::publish).collect(toList());
+        final List<OutboxEvent> published = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            if (isConfirmed(confirmations.get(i), confirmDeadline)) {
+                published.add(events.get(i));
+            }
+        }
+        if (!published.isEmpty()) {
+            outboxEventRepository.deleteInBatch(published);
+        }
+        if (published.size() < events.size()) {
+            // the next run retries them, on whichever instance claims them first
+            outboxEventRepository.release(events.stream()
+                    .filter(event -> !published.contains(event))
+                    .map(OutboxEvent::getId)
+                    .collect(toList()));
+        }
+        LOGGER.debug("Relayed {} of {} outbox events", published.size(), events.size());
+        return published.size();
+    }
+
+    private CompletableFuture<Void> publish(OutboxEvent event) {
+        if (tracer == null || event.getTraceId() == null) {
+            return doPublish(event);
+        }
+        final Span span = tracer.start("relay " + event.getType(), event.getTraceId(), event.getSpanId());
+        try {
+            return doPublish(event);
+        } finally {
+            span.close();
+        }
+    }
+
+    private CompletableFuture<Void> doPublish(OutboxEvent event) {
+        try {
+            return eventPublisher.publish(event.getEventId(), event.getType(), event.getPayload());
+        } catch (RuntimeException e) {
+            final CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private boolean isConfirmed(CompletableFuture<Void> confirmation, long confirmDeadline) {
+        try {
+            confirmation.get(Math.max(0, confirmDeadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.warn("Outbox event not confirmed, keeping it for the next run: {}", e.toString());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+-- Moves the ids of orders and line items of an existing database from identity columns to the pooled sequences.
+-- The sequences hand out blocks of 50 ids that end with their value, so they continue 50 above the highest id.
+CREATE SEQUENCE IF NOT EXISTS PIZZA_ORDER_SEQ INCREMENT BY 50;
+ALTER SEQUENCE PIZZA_ORDER_SEQ RESTART WITH (SELECT COALESCE(MAX(ID), 0) + 50 FROM PIZZA_ORDER) INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS LINE_ITEM_SEQ INCREMENT BY 50;
+ALTER SEQUENCE LINE_ITEM_SEQ RESTART WITH (SELECT COALESCE(MAX(ID), 0) + 50 FROM LINE_ITEM) INCREMENT BY 50;
@@ -0,0 +1,3 @@
+-- Adds the idempotency key of orders to an existing database. Orders created before have none.
+ALTER TABLE PIZZA_ORDER ADD COLUMN IF NOT EXISTS IDEMPOTENCY_KEY VARCHAR(64);
+CREATE UNIQUE INDEX IF NOT EXISTS UK_PIZZA_ORDER_IDEMPOTENCY_KEY ON PIZZA_ORDER(IDEMPOTENCY_KEY);
@@ -0,0 +1,11 @@
+-- Stores the total price of the orders of an existing database, summed up from the numeric line item prices.
+-- Run db/line-item-price.sql first. Orders without a stored total still compute it from their line items.
+ALTER TABLE PIZZA_ORDER ADD COLUMN IF NOT EXISTS TOTAL_PRICE_AMOUNT BIGINT;
+ALTER TABLE PIZZA_ORDER ADD COLUMN IF NOT EXISTS TOTAL_PRICE_CURRENCY VARCHAR(3);
+
+UPDATE PIZZA_ORDER O
+SET TOTAL_PRICE_AMOUNT = (SELECT SUM(I.PRICE_AMOUNT * I.AMOUNT) FROM LINE_ITEM I WHERE I.ORDER_ID = O.ID),
+    TOTAL_PRICE_CURRENCY = (SELECT MIN(I.PRICE_CURRENCY) FROM LINE_ITEM I WHERE I.ORDER_ID = O.ID)
+WHERE O.TOTAL_PRICE_AMOUNT IS NULL
+  AND (SELECT COUNT(DISTINCT I.PRICE_CURRENCY) FROM LINE_ITEM I WHERE I.ORDER_ID = O.ID) = 1
+  AND NOT EXISTS (SELECT 1 FROM LINE_ITEM I WHERE I.ORDER_ID = O.ID AND I.PRICE_AMOUNT IS NULL);
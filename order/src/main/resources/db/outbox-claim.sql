@@ -0,0 +1,3 @@
+-- Adds the claim of the outbox events of an existing database. Events written before are unclaimed.
+ALTER TABLE EVENT_OUTBOX ADD COLUMN IF NOT EXISTS CLAIM_TOKEN VARCHAR(36);
+ALTER TABLE EVENT_OUTBOX ADD COLUMN IF NOT EXISTS CLAIMED_UNTIL TIMESTAMP;
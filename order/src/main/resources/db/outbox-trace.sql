@@ -0,0 +1,4 @@
+-- Adds the trace of the outbox events of an existing database. Events written before have no trace and are
+-- published without one.
+ALTER TABLE EVENT_OUTBOX ADD COLUMN IF NOT EXISTS TRACE_ID VARCHAR(16);
+ALTER TABLE EVENT_OUTBOX ADD COLUMN IF NOT EXISTS SPAN_ID VARCHAR(16);
@@ -1,9 +1,13 @@
 package com.epages.microservice.handson.order;
 
+import static org.assertj.core.api.BDDAssertions.then;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.hasToString;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
@@ -16,10 +20,12 @@ import static org.springframework.restdocs.payload.PayloadDocumentation.requestF
 import static org.springframework.restdocs.payload.PayloadDocumentation.responseFields;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup;
 
@@ -41,7 +47,9 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.context.WebApplicationContext;
 
@@ -145,7 +153,22 @@ public class OrderControllerTest {
                 )))
         ;
 
-        verify(orderEventPublisher).sendOrderCreatedEvent(order);
+        verify(orderEventPublisher).sendOrderCreatedEvent(eq(order), argThat(hasToString(startsWith(ordersUri))));
+    }
+
+    @Test
+    public void should_create_order_once_per_idempotency_key() throws Exception {
+        givenInputData();
+        whenOrderCreated("order-1");
+        final String location = ordersResultAction.andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+        whenOrderCreated("order-1");
+
+        ordersResultAction
+                .andExpect(status().is(HttpStatus.CREATED.value()))
+                .andExpect(header().string(HttpHeaders.LOCATION, location));
+        then(orderRepository.count()).isEqualTo(1);
+        verify(orderEventPublisher).sendOrderCreatedEvent(eq(order), argThat(hasToString(location)));
     }
 
     @Test
@@ -193,6 +216,31 @@ public class OrderControllerTest {
                         ))) //
         ;
     }
+    @Test
+    public void should_get_orders_in_bulk() throws Exception {
+        givenExistingOrder();
+
+        whenOrdersRetrievedInBulk();
+
+        ordersResultAction
+                .andExpect(status().is(HttpStatus.OK.value()))
+                .andExpect(jsonPath("$._embedded.orderResources", hasSize(1)))
+                .andExpect(jsonPath("$._embedded.orderResources[0]._links.self.href",
+                        is(entityLinks.linkForSingleResource(Order.class, order.getId()).toUri().toString())))
+                .andDo(document("orders-bulk",
+                        responseFields(
+                                fieldWithPath("_embedded").description("The requested <<resources-order-get,Orders>> that exist")
+                        ))) //
+        ;
+    }
+
+    private void whenOrdersRetrievedInBulk() throws Exception {
+        ordersResultAction = mockMvc.perform(get(ordersUri + "/bulk")
+                .param("link", entityLinks.linkForSingleResource(Order.class, order.getId()).toUri().toString())
+                .param("link", entityLinks.linkForSingleResource(Order.class, order.getId() + 1).toUri().toString())
+                .accept(MediaTypes.HAL_JSON));
+    }
+
     private void whenAllOrdersRetrieved() throws Exception {
         ordersResultAction = mockMvc.perform(get(ordersUri)
                 .accept(MediaTypes.HAL_JSON));
@@ -227,9 +275,20 @@ public class OrderControllerTest {
     }
 
     private void whenOrderCreated() throws Exception {
-        ordersResultAction = mockMvc.perform(post(ordersUri)
+        whenOrderCreated(null);
+    }
+
+    private void whenOrderCreated(String idempotencyKey) throws Exception {
+        MockHttpServletRequestBuilder creation = post(ordersUri)
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(jsonInput));
+                .content(jsonInput);
+        if (idempotencyKey != null) {
+            creation.header(OrderController.IDEMPOTENCY_KEY, idempotencyKey);
+        }
+        MvcResult asyncResult = mockMvc.perform(creation)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ordersResultAction = mockMvc.perform(asyncDispatch(asyncResult));
 
         order = orderService.getAll(null).iterator().next();
     }
@@ -0,0 +1,101 @@
+package com.epages.microservice.handson.order;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.Collections;
+
+import org.javamoney.moneta.Money;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.IntegrationTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@OrderApplicationTest(activeProfiles = {"test", "OrderServiceCreateTest"})
+// the relay of this context would compete for the events of OutboxRelayTest
+@IntegrationTest({"order.outbox.poll-interval-millis:3600000", "server.port:0"})
+public class OrderServiceCreateTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PizzaCatalog pizzaCatalog;
+
+    private final URI salami = URI.create("http://localhost/catalog/1");
+
+    private Boolean pricedInTransaction;
+
+    private Order order;
+
+    @Configuration
+    @Profile("OrderServiceCreateTest")
+    public static class MockConfiguration {
+        @Bean
+        public PizzaCatalog pizzaCatalog() {
+            return mock(PizzaCatalog.class);
+        }
+
+        @Bean
+        public OrderEventPublisher orderEventPublisher() {
+            return mock(OrderEventPublisher.class);
+        }
+    }
+
+    @After
+    public void cleanUp() {
+        orderRepository.deleteAll();
+        reset(pizzaCatalog);
+    }
+
+    @Test
+    public void should_price_order_before_saving_transaction() {
+        givenPizzaCatalog();
+
+        order = orderService.create(givenOrder());
+
+        then(pricedInTransaction).isFalse();
+        then(orderRepository.findOne(order.getId()).getTotalPrice()).isEqualTo(Money.of(17.80, "EUR"));
+    }
+
+    private void givenPizzaCatalog() {
+        final Pizza pizza = new Pizza();
+        pizza.setName("Pizza Salami");
+        pizza.setPrice(Money.of(8.90, "EUR"));
+        when(pizzaCatalog.getPizzas(anyCollectionOf(URI.class))).thenAnswer(invocation -> {
+            pricedInTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+            return Collections.singletonMap(salami, pizza);
+        });
+    }
+
+    private Order givenOrder() {
+        Order newOrder = new Order();
+        Address address = new Address();
+        address.setCity("Hamburg");
+        address.setFirstname("Mathias");
+        address.setLastname("Dpunkt");
+        address.setPostalCode("22222");
+        address.setStreet("Pilatuspool 2");
+        address.setTelephone("+4908154711");
+        newOrder.setDeliveryAddress(address);
+        LineItem lineItem = new LineItem();
+        lineItem.setAmount(2);
+        lineItem.setPizza(salami);
+        newOrder.addItem(lineItem);
+        return newOrder;
+    }
+}
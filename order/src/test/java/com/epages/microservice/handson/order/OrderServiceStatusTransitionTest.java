@@ -0,0 +1,98 @@
+package com.epages.microservice.handson.order;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.time.LocalDateTime;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@OrderApplicationTest
+public class OrderServiceStatusTransitionTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Order order;
+
+    private boolean applied;
+
+    @After
+    public void cleanUp() {
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    public void should_move_order_forward() {
+        givenOrder(OrderStatus.NEW);
+        LocalDateTime estimatedTimeOfDelivery = LocalDateTime.of(2015, 9, 12, 7, 43);
+
+        applied = orderService.applyStatusTransitions(singletonList(
+                new OrderStatusTransition(order.getId(), OrderStatus.BAKING, estimatedTimeOfDelivery))) == 1;
+
+        then(applied).isTrue();
+        then(reloadedOrder().getStatus()).isEqualTo(OrderStatus.BAKING);
+        then(reloadedOrder().getEstimatedTimeOfDelivery()).isEqualTo(estimatedTimeOfDelivery);
+    }
+
+    @Test
+    public void should_not_move_order_backwards() {
+        givenOrder(OrderStatus.READY_FOR_DELIVERY);
+
+        applied = orderService.setOrderStatus(order.getId(), OrderStatus.BAKING);
+
+        then(applied).isFalse();
+        then(reloadedOrder().getStatus()).isEqualTo(OrderStatus.READY_FOR_DELIVERY);
+    }
+
+    @Test
+    public void should_keep_estimated_time_of_delivery_of_late_transition() {
+        givenOrder(OrderStatus.READY_FOR_DELIVERY);
+        LocalDateTime estimatedTimeOfDelivery = LocalDateTime.of(2015, 9, 12, 7, 43);
+
+        applied = orderService.applyStatusTransitions(singletonList(
+                new OrderStatusTransition(order.getId(), OrderStatus.BAKING, estimatedTimeOfDelivery))) == 1;
+
+        then(applied).isFalse();
+        then(reloadedOrder().getStatus()).isEqualTo(OrderStatus.READY_FOR_DELIVERY);
+        then(reloadedOrder().getEstimatedTimeOfDelivery()).isEqualTo(estimatedTimeOfDelivery);
+    }
+
+    @Test
+    public void should_not_apply_transition_to_unknown_order() {
+        applied = orderService.setOrderStatus(4711L, OrderStatus.BAKING);
+
+        then(applied).isFalse();
+    }
+
+    private void givenOrder(OrderStatus status) {
+        order = new Order();
+        order.setOrderedAt(LocalDateTime.now());
+        order.setStatus(status);
+        order.setDeliveryAddress(address());
+        order = orderRepository.saveAndFlush(order);
+    }
+
+    private Address address() {
+        Address address = new Address();
+        address.setFirstname("Mathias");
+        address.setLastname("Dpunkt");
+        address.setStreet("Somestreet 1");
+        address.setCity("Hamburg");
+        address.setPostalCode("22305");
+        address.setTelephone("+4908154711");
+        return address;
+    }
+
+    private Order reloadedOrder() {
+        return orderRepository.findOne(order.getId());
+    }
+}
@@ -0,0 +1,42 @@
+package com.epages.microservice.handson.order;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.net.URI;
+
+import org.javamoney.moneta.Money;
+import org.junit.Test;
+
+public class OrderTest {
+
+    private Order order = new Order();
+
+    @Test
+    public void should_store_total_price_of_priced_items() {
+        givenLineItem(2, Money.of(8.9, "EUR"));
+        givenLineItem(1, Money.of(10.9, "EUR"));
+
+        order.calculateTotalPrice();
+        order.getItems().get(0).setPrice(Money.of(1, "EUR"));
+
+        then(order.getTotalPrice()).isEqualTo(Money.of(28.7, "EUR"));
+    }
+
+    @Test
+    public void should_discard_total_price_when_adding_item() {
+        givenLineItem(2, Money.of(8.9, "EUR"));
+        order.calculateTotalPrice();
+
+        givenLineItem(1, Money.of(10.9, "EUR"));
+
+        then(order.getTotalPrice()).isEqualTo(Money.of(28.7, "EUR"));
+    }
+
+    private void givenLineItem(int amount, Money price) {
+        LineItem lineItem = new LineItem();
+        lineItem.setPizza(URI.create("http://localhost/pizzas/1"));
+        lineItem.setAmount(amount);
+        lineItem.setPrice(price);
+        order.addItem(lineItem);
+    }
+}
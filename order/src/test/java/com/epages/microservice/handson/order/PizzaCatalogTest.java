@@ -0,0 +1,94 @@
+package com.epages.microservice.handson.order;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.Map;
+
+import org.javamoney.moneta.Money;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+public class PizzaCatalogTest {
+
+    private final URI salami = URI.create("http://localhost/catalog/1");
+
+    private final URI margherita = URI.create("http://localhost/catalog/2");
+
+    private PizzaClientService pizzaClientService;
+
+    private PizzaCatalog pizzaCatalog;
+
+    private Map<URI, Pizza> pizzas;
+
+    @Before
+    public void setUp() {
+        pizzaClientService = mock(PizzaClientService.class);
+        pizzaCatalog = new PizzaCatalog(pizzaClientService, 100, 60, 4, 500);
+    }
+
+    @After
+    public void tearDown() {
+        pizzaCatalog.destroy();
+    }
+
+    @Test
+    public void should_look_up_each_pizza_once() {
+        givenPizza(salami, "Pizza Salami");
+        givenPizza(margherita, "Pizza Margherita");
+
+        pizzas = pizzaCatalog.getPizzas(asList(salami, margherita, salami));
+        pizzas = pizzaCatalog.getPizzas(asList(salami));
+
+        then(pizzas.get(salami).getName()).isEqualTo("Pizza Salami");
+        verify(pizzaClientService, times(1)).getPizza(salami);
+        verify(pizzaClientService, times(1)).getPizza(margherita);
+    }
+
+    @Test
+    public void should_not_cache_failed_lookup() {
+        when(pizzaClientService.getPizza(salami)).thenThrow(new IllegalArgumentException("not found"));
+
+        Throwable failure = null;
+        try {
+            pizzaCatalog.getPizzas(asList(salami));
+        } catch (IllegalArgumentException e) {
+            failure = e;
+        }
+        givenPizza(salami, "Pizza Salami");
+        pizzas = pizzaCatalog.getPizzas(asList(salami));
+
+        then(failure).isNotNull();
+        then(pizzas.get(salami).getName()).isEqualTo("Pizza Salami");
+    }
+
+    @Test(expected = ResourceAccessException.class)
+    public void should_fail_on_slow_lookup() {
+        when(pizzaClientService.getPizza(salami)).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return pizza("Pizza Salami");
+        });
+
+        pizzaCatalog.getPizzas(asList(salami));
+    }
+
+    private void givenPizza(URI pizzaUri, String name) {
+        Pizza pizza = pizza(name);
+        doReturn(pizza).when(pizzaClientService).getPizza(pizzaUri);
+    }
+
+    private Pizza pizza(String name) {
+        Pizza pizza = new Pizza();
+        pizza.setName(name);
+        pizza.setPrice(Money.of(8.9, "EUR"));
+        return pizza;
+    }
+}
@@ -2,22 +2,25 @@ package com.epages.microservice.handson.order.orderstatus;
 
 import static org.assertj.core.api.BDDAssertions.then;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
 
-import java.util.Optional;
+import java.util.List;
 
+import org.junit.After;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
-import com.epages.microservice.handson.order.Order;
 import com.epages.microservice.handson.order.OrderApplicationTest;
 import com.epages.microservice.handson.order.OrderService;
 import com.epages.microservice.handson.order.OrderStatus;
+import com.epages.microservice.handson.order.OrderStatusTransition;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @OrderApplicationTest(activeProfiles = {"test", "DeliveryOrderReceivedEventSubscriberTest"})
@@ -38,7 +41,7 @@ public class DeliveryOrderReceivedEventSubscriberTest {
             "  }\n" +
             "}";
 
-    private Order order;
+    private OrderStatusTransition transition;
 
     @Configuration
     @Profile("DeliveryOrderReceivedEventSubscriberTest")
@@ -49,27 +52,32 @@ public class DeliveryOrderReceivedEventSubscriberTest {
         }
     }
 
+    @After
+    public void resetMocks() {
+        reset(orderService);
+    }
+
     @Test
     public void should_set_status_and_date_on_order() {
-        givenOrder();
-
         whenEventConsumed();
 
-        then(order.getStatus()).isEqualTo(OrderStatus.BAKING);
-        then(order.getEstimatedTimeOfDelivery()).isNotNull();
-        then(order.getEstimatedTimeOfDelivery().getDayOfMonth()).isEqualTo(12);
-        then(order.getEstimatedTimeOfDelivery().getHour()).isEqualTo(7);
+        thenTransitionApplied();
+        then(transition.getOrderId()).isEqualTo(1L);
+        then(transition.getStatus()).isEqualTo(OrderStatus.BAKING);
+        then(transition.getEstimatedTimeOfDelivery()).isNotNull();
+        then(transition.getEstimatedTimeOfDelivery().getDayOfMonth()).isEqualTo(12);
+        then(transition.getEstimatedTimeOfDelivery().getHour()).isEqualTo(7);
     }
 
     private void whenEventConsumed() {
         deliveryOrderReceivedEventSubscriber.consume(event);
     }
 
-    private void givenOrder() {
-        order = new Order();
-        order.setId(1l);
-        order.setStatus(OrderStatus.NEW);
-
-        when(orderService.getOrder(1l)).thenReturn(Optional.of(order));
+    @SuppressWarnings("unchecked")
+    private void thenTransitionApplied() {
+        ArgumentCaptor<List> transitions = ArgumentCaptor.forClass(List.class);
+        verify(orderService).applyStatusTransitions(transitions.capture());
+        then(transitions.getValue()).hasSize(1);
+        transition = (OrderStatusTransition) transitions.getValue().get(0);
     }
 }
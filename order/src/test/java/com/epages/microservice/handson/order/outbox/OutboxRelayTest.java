@@ -0,0 +1,110 @@
+package com.epages.microservice.handson.order.outbox;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import com.epages.microservice.handson.order.OrderApplicationTest;
+import com.epages.microservice.handson.shared.event.EventPublisher;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@OrderApplicationTest(activeProfiles = {"test", "OutboxRelayTest"})
+public class OutboxRelayTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private EventPublisher eventPublisher;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    private OutboxEvent confirmedEvent;
+
+    private OutboxEvent unconfirmedEvent;
+
+    @Configuration
+    @Profile("OutboxRelayTest")
+    public static class MockConfiguration {
+        @Bean
+        public EventPublisher eventPublisher() {
+            return mock(EventPublisher.class);
+        }
+    }
+
+    @After
+    public void cleanUp() {
+        outboxEventRepository.deleteAll();
+        reset(eventPublisher);
+    }
+
+    @Test
+    public void should_remove_only_confirmed_events() {
+        givenOutboxEvents();
+
+        outboxRelay.relay();
+
+        then(outboxEventRepository.findAll()).containsExactly(unconfirmedEvent);
+        then(outboxEventRepository.findOne(unconfirmedEvent.getId()).getClaimedUntil()).isNull();
+    }
+
+    @Test
+    public void should_leave_events_claimed_by_another_relay() {
+        givenOutboxEvents();
+        givenClaimedByAnotherRelay(LocalDateTime.now().plusMinutes(1));
+
+        outboxRelay.relay();
+
+        then(outboxEventRepository.findAll()).containsExactly(confirmedEvent, unconfirmedEvent);
+        verify(eventPublisher, never()).publish(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    public void should_take_over_events_whose_claim_expired() {
+        givenOutboxEvents();
+        givenClaimedByAnotherRelay(LocalDateTime.now().minusSeconds(1));
+
+        outboxRelay.relay();
+
+        then(outboxEventRepository.findAll()).containsExactly(unconfirmedEvent);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_claim_timeout_that_does_not_cover_confirm_timeout() {
+        new OutboxRelay(outboxEventRepository, eventPublisher, 100, 10000, 15000);
+    }
+
+    private void givenClaimedByAnotherRelay(LocalDateTime claimedUntil) {
+        outboxEventRepository.claim(asList(confirmedEvent.getId(), unconfirmedEvent.getId()), "another-relay",
+                LocalDateTime.now(), claimedUntil);
+    }
+
+    private void givenOutboxEvents() {
+        confirmedEvent = outboxEventRepository.save(new OutboxEvent("OrderCreated", "{\"orderLink\":\"http://localhost/orders/1\"}"));
+        unconfirmedEvent = outboxEventRepository.save(new OutboxEvent("OrderCreated", "{\"orderLink\":\"http://localhost/orders/2\"}"));
+
+        CompletableFuture<Void> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("not confirmed"));
+        when(eventPublisher.publish(anyString(), eq("OrderCreated"), anyString())).thenReturn(failed);
+        when(eventPublisher.publish(confirmedEvent.getEventId(), "OrderCreated", confirmedEvent.getPayload())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+}
@@ -0,0 +1,153 @@
+package com.epages.microservice.handson.shared.event;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.javamoney.moneta.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.data.geo.GeoModule;
+
+import com.epages.microservice.handson.shared.json.JsonAutoConfiguration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writing and reading event envelopes in both encodings: publishing up to the {@link EventSender}, reading an event
+ * of the subscriber's own type including its payload, and reading an event of another type, which skips the payload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventEnvelopeBenchmark {
+
+    private static final String TYPE = "OrderCreated";
+
+    private static final CompletableFuture<Void> SENT = CompletableFuture.completedFuture(null);
+
+    @Param({"JSON", "SMILE"})
+    private EventEncoding encoding;
+
+    private EventPublisher eventPublisher;
+
+    private EventEnvelopeReader<OrderPayload> ownTypeReader;
+
+    private EventEnvelopeReader<OrderPayload> otherTypeReader;
+
+    private OrderPayload payload;
+
+    private byte[] event;
+
+    private Message sent;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new JsonAutoConfiguration().jackson2ObjectMapperBuilder(new GeoModule(), false, true).build();
+        eventPublisher = new EventPublisher(objectMapper, (routingKey, message) -> {
+            sent = message;
+            return SENT;
+        }, encoding);
+        ownTypeReader = new EventEnvelopeReader<>(objectMapper, TYPE, OrderPayload.class);
+        otherTypeReader = new EventEnvelopeReader<>(objectMapper, "DeliveryOrderReceived", OrderPayload.class);
+
+        payload = new OrderPayload();
+        payload.setOrderLink(URI.create("http://localhost/orders/42"));
+        for (int i = 1; i <= 3; i++) {
+            OrderItem item = new OrderItem();
+            item.setPizza(URI.create("http://localhost/pizzas/" + i));
+            item.setAmount(i);
+            item.setPrice(Money.of(8.9 + i, "EUR"));
+            payload.getItems().add(item);
+        }
+        eventPublisher.publish(TYPE, payload);
+        event = sent.getBody();
+    }
+
+    @Benchmark
+    public Message publish() {
+        eventPublisher.publish(TYPE, payload);
+        return sent;
+    }
+
+    @Benchmark
+    public Event<OrderPayload> readOwnType() throws IOException {
+        return ownTypeReader.read(event, encoding);
+    }
+
+    @Benchmark
+    public Event<OrderPayload> readOtherType() throws IOException {
+        return otherTypeReader.read(event, encoding);
+    }
+
+    public static class OrderPayload {
+
+        private URI orderLink;
+
+        private List<OrderItem> items = new ArrayList<>();
+
+        public URI getOrderLink() {
+            return orderLink;
+        }
+
+        public void setOrderLink(URI orderLink) {
+            this.orderLink = orderLink;
+        }
+
+        public List<OrderItem> getItems() {
+            return items;
+        }
+
+        public void setItems(List<OrderItem> items) {
+            this.items = items;
+        }
+    }
+
+    public static class OrderItem {
+
+        private URI pizza;
+
+        private int amount;
+
+        private Money price;
+
+        public URI getPizza() {
+            return pizza;
+        }
+
+        public void setPizza(URI pizza) {
+            this.pizza = pizza;
+        }
+
+        public int getAmount() {
+            return amount;
+        }
+
+        public void setAmount(int amount) {
+            this.amount = amount;
+        }
+
+        public Money getPrice() {
+            return price;
+        }
+
+        public void setPrice(Money price) {
+            this.price = price;
+        }
+    }
+}
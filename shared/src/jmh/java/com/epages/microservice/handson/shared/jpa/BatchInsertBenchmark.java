@@ -0,0 +1,190 @@
+package com.epages.microservice.handson.shared.jpa;
+
+import static javax.persistence.GenerationType.IDENTITY;
+import static javax.persistence.GenerationType.SEQUENCE;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.CascadeType;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.dialect.H2Dialect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Orders with many line items saved with identity ids, which Hibernate inserts one by one as it needs the id, and with
+ * pooled sequence ids, which are inserted in JDBC batches - with the Hibernate settings of the shared configuration.
+ * The database is in memory, so the round trips that batching saves against a database server are not included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchInsertBenchmark {
+
+    @Param({ "10", "100" })
+    private int items;
+
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() {
+        final Configuration configuration = new Configuration()
+                .addAnnotatedClass(IdentityOrder.class)
+                .addAnnotatedClass(IdentityItem.class)
+                .addAnnotatedClass(SequenceOrder.class)
+                .addAnnotatedClass(SequenceItem.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:batch-insert;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.dialect", H2Dialect.class.getName())
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.id.new_generator_mappings", "true")
+                .setProperty("hibernate.jdbc.batch_size", "50")
+                .setProperty("hibernate.order_inserts", "true")
+                .setProperty("hibernate.order_updates", "true");
+        sessionFactory = configuration.buildSessionFactory(
+                new StandardServiceRegistryBuilder().applySettings(configuration.getProperties()).build());
+    }
+
+    @Setup(Level.Iteration)
+    public void deleteOrders() {
+        inTransaction(session -> {
+            for (String table : new String[] { "IDENTITY_ITEM", "IDENTITY_ORDER", "SEQUENCE_ITEM", "SEQUENCE_ORDER" }) {
+                session.createSQLQuery("DELETE FROM " + table).executeUpdate();
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Long identityIds() {
+        final IdentityOrder order = new IdentityOrder();
+        for (int i = 0; i < items; i++) {
+            final IdentityItem item = new IdentityItem();
+            item.order = order;
+            item.pizza = "Pizza " + i;
+            order.items.add(item);
+        }
+        inTransaction(session -> session.persist(order));
+        return order.id;
+    }
+
+    @Benchmark
+    public Long pooledSequenceIds() {
+        final SequenceOrder order = new SequenceOrder();
+        for (int i = 0; i < items; i++) {
+            final SequenceItem item = new SequenceItem();
+            item.order = order;
+            item.pizza = "Pizza " + i;
+            order.items.add(item);
+        }
+        inTransaction(session -> session.persist(order));
+        return order.id;
+    }
+
+    private void inTransaction(SessionWork work) {
+        final Session session = sessionFactory.openSession();
+        try {
+            final Transaction transaction = session.beginTransaction();
+            work.execute(session);
+            transaction.commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    @FunctionalInterface
+    private interface SessionWork {
+        void execute(Session session);
+    }
+
+    @Entity
+    @Table(name = "IDENTITY_ORDER")
+    public static class IdentityOrder {
+
+        @Id
+        @GeneratedValue(strategy = IDENTITY)
+        Long id;
+
+        @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
+        List<IdentityItem> items = new ArrayList<>();
+    }
+
+    @Entity
+    @Table(name = "IDENTITY_ITEM")
+    public static class IdentityItem {
+
+        @Id
+        @GeneratedValue(strategy = IDENTITY)
+        Long id;
+
+        @ManyToOne
+        @JoinColumn(name = "ORDER_ID")
+        IdentityOrder order;
+
+        @Column(name = "PIZZA")
+        String pizza;
+    }
+
+    @Entity
+    @Table(name = "SEQUENCE_ORDER")
+    public static class SequenceOrder {
+
+        @Id
+        @GeneratedValue(strategy = SEQUENCE, generator = "SEQUENCE_ORDER_SEQ")
+        @SequenceGenerator(name = "SEQUENCE_ORDER_SEQ", sequenceName = "SEQUENCE_ORDER_SEQ", allocationSize = 50)
+        Long id;
+
+        @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
+        List<SequenceItem> items = new ArrayList<>();
+    }
+
+    @Entity
+    @Table(name = "SEQUENCE_ITEM")
+    public static class SequenceItem {
+
+        @Id
+        @GeneratedValue(strategy = SEQUENCE, generator = "SEQUENCE_ITEM_SEQ")
+        @SequenceGenerator(name = "SEQUENCE_ITEM_SEQ", sequenceName = "SEQUENCE_ITEM_SEQ", allocationSize = 50)
+        Long id;
+
+        @ManyToOne
+        @JoinColumn(name = "ORDER_ID")
+        SequenceOrder order;
+
+        @Column(name = "PIZZA")
+        String pizza;
+    }
+}
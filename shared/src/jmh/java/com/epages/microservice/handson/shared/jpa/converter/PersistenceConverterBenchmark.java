@@ -0,0 +1,79 @@
+package com.epages.microservice.handson.shared.jpa.converter;
+
+import java.net.URI;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import javax.money.MonetaryAmount;
+
+import org.javamoney.moneta.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The attribute converters run for every converted column of every row that is written or read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersistenceConverterBenchmark {
+
+    private final URIPersistenceConverter uriConverter = new URIPersistenceConverter();
+
+    private final LocalDateTimePersistenceConverter localDateTimeConverter = new LocalDateTimePersistenceConverter();
+
+    private final MoneyPersistenceConverter moneyConverter = new MoneyPersistenceConverter();
+
+    private final URI uri = URI.create("http://localhost:8081/pizzas/42");
+
+    private final String uriColumn = uri.toString();
+
+    private final LocalDateTime localDateTime = LocalDateTime.of(2015, 9, 12, 7, 43, 12, 345000000);
+
+    private final Timestamp timestampColumn = Timestamp.valueOf(localDateTime);
+
+    private final Money money = Money.of(8.9, "EUR");
+
+    private final String moneyColumn = moneyConverter.convertToDatabaseColumn(money);
+
+    @Benchmark
+    public String uriToColumn() {
+        return uriConverter.convertToDatabaseColumn(uri);
+    }
+
+    @Benchmark
+    public URI uriFromColumn() {
+        return uriConverter.convertToEntityAttribute(uriColumn);
+    }
+
+    @Benchmark
+    public Timestamp localDateTimeToColumn() {
+        return localDateTimeConverter.convertToDatabaseColumn(localDateTime);
+    }
+
+    @Benchmark
+    public LocalDateTime localDateTimeFromColumn() {
+        return localDateTimeConverter.convertToEntityAttribute(timestampColumn);
+    }
+
+    @Benchmark
+    public String moneyToColumn() {
+        return moneyConverter.convertToDatabaseColumn(money);
+    }
+
+    @Benchmark
+    public MonetaryAmount moneyFromColumn() {
+        return moneyConverter.convertToEntityAttribute(moneyColumn);
+    }
+}
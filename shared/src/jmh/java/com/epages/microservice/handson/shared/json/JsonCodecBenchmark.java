@@ -0,0 +1,166 @@
+package com.epages.microservice.handson.shared.json;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.javamoney.moneta.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.geo.GeoModule;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Compares the former codec setup - pretty printed, reflective access, payloads bound through a map -
+ * with the production setup of compact output, afterburner and pre-built readers and writers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<Map<String, Object>>() {
+    };
+
+    private ObjectMapper legacyMapper;
+
+    private ObjectWriter productionWriter;
+
+    private ObjectReader productionReader;
+
+    private OrderSnapshot snapshot;
+
+    private byte[] legacyJson;
+
+    private byte[] productionJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        legacyMapper = objectMapper(true, false);
+        ObjectMapper productionMapper = objectMapper(false, true);
+        productionWriter = productionMapper.writerFor(OrderSnapshot.class);
+        productionReader = productionMapper.readerFor(OrderSnapshot.class);
+
+        snapshot = new OrderSnapshot();
+        snapshot.setOrderLink(URI.create("http://localhost/orders/42"));
+        snapshot.setComment("ring twice");
+        for (int i = 1; i <= 5; i++) {
+            OrderItem item = new OrderItem();
+            item.setPizza(URI.create("http://localhost/pizzas/" + i));
+            item.setAmount(i);
+            item.setPrice(Money.of(8.9 + i, "EUR"));
+            snapshot.getItems().add(item);
+        }
+        legacyJson = legacyMapper.writeValueAsBytes(snapshot);
+        productionJson = productionWriter.writeValueAsBytes(snapshot);
+    }
+
+    @Benchmark
+    public byte[] writeLegacy() throws IOException {
+        return legacyMapper.writeValueAsBytes(snapshot);
+    }
+
+    @Benchmark
+    public byte[] writeProduction() throws IOException {
+        return productionWriter.writeValueAsBytes(snapshot);
+    }
+
+    @Benchmark
+    public OrderSnapshot readLegacy() throws IOException {
+        Map<String, Object> payload = legacyMapper.readValue(legacyJson, MAP_TYPE);
+        return legacyMapper.convertValue(payload, OrderSnapshot.class);
+    }
+
+    @Benchmark
+    public OrderSnapshot readProduction() throws IOException {
+        return productionReader.readValue(productionJson);
+    }
+
+    private static ObjectMapper objectMapper(boolean indentOutput, boolean afterburner) {
+        return new JsonAutoConfiguration().jackson2ObjectMapperBuilder(new GeoModule(), indentOutput, afterburner).build();
+    }
+
+    public static class OrderSnapshot {
+
+        private URI orderLink;
+
+        private List<OrderItem> items = new ArrayList<>();
+
+        private String comment;
+
+        public URI getOrderLink() {
+            return orderLink;
+        }
+
+        public void setOrderLink(URI orderLink) {
+            this.orderLink = orderLink;
+        }
+
+        public List<OrderItem> getItems() {
+            return items;
+        }
+
+        public void setItems(List<OrderItem> items) {
+            this.items = items;
+        }
+
+        public String getComment() {
+            return comment;
+        }
+
+        public void setComment(String comment) {
+            this.comment = comment;
+        }
+    }
+
+    public static class OrderItem {
+
+        private URI pizza;
+
+        private int amount;
+
+        private Money price;
+
+        public URI getPizza() {
+            return pizza;
+        }
+
+        public void setPizza(URI pizza) {
+            this.pizza = pizza;
+        }
+
+        public int getAmount() {
+            return amount;
+        }
+
+        public void setAmount(int amount) {
+            this.amount = amount;
+        }
+
+        public Money getPrice() {
+            return price;
+        }
+
+        public void setPrice(Money price) {
+            this.price = price;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.epages.microservice.handson.shared.money;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import javax.money.MonetaryAmount;
+import javax.money.format.MonetaryAmountFormat;
+import javax.money.format.MonetaryFormats;
+
+import org.javamoney.moneta.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the JavaMoney amount format with {@link MoneyCodec}; run with {@code -prof gc} to see the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyCodecBenchmark {
+
+    private final MonetaryAmountFormat format = MonetaryFormats.getAmountFormat(Locale.ROOT);
+
+    private final Money price = Money.of(new BigDecimal("1234.9"), "EUR");
+
+    private final String text = "EUR 1,234.90";
+
+    @Benchmark
+    public String formatMonetaryFormat() {
+        return format.format(price);
+    }
+
+    @Benchmark
+    public String formatMoneyCodec() {
+        return MoneyCodec.format(price);
+    }
+
+    @Benchmark
+    public MonetaryAmount parseMonetaryFormat() {
+        return Money.parse(text, format);
+    }
+
+    @Benchmark
+    public MonetaryAmount parseMoneyCodec() {
+        return MoneyCodec.parse(text);
+    }
+}
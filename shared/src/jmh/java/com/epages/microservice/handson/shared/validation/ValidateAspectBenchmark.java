@@ -0,0 +1,118 @@
+package com.epages.microservice.handson.shared.validation;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.Validation;
+import javax.validation.constraints.NotNull;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+/**
+ * Overhead of {@link ValidateAspect} on a proxied service, compared with calling the service directly.
+ * Run with {@code -prof gc} to see the allocations of the aspect.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidateAspectBenchmark {
+
+    private final Pizza pizza = new Pizza("Salami");
+
+    private final PizzaService target = new PizzaServiceImpl();
+
+    private PizzaService proxy;
+
+    private PizzaService passThroughProxy;
+
+    @Setup
+    public void setUp() {
+        proxy = proxy(new ValidateAspect(Validation.buildDefaultValidatorFactory().getValidator()));
+        passThroughProxy = proxy(new PassThroughAspect());
+    }
+
+    private PizzaService proxy(Object aspect) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(aspect);
+        return proxyFactory.getProxy();
+    }
+
+    @Benchmark
+    public Pizza direct() {
+        return target.bake(pizza);
+    }
+
+    /**
+     * The cost of the proxy and the join point alone.
+     */
+    @Benchmark
+    public String passThrough() {
+        return passThroughProxy.name(pizza.name);
+    }
+
+    @Benchmark
+    public Pizza validated() {
+        return proxy.bake(pizza);
+    }
+
+    @Benchmark
+    public String unconstrained() {
+        return proxy.name(pizza.name);
+    }
+
+    @Aspect
+    public static class PassThroughAspect {
+
+        @Around("execution(@com.epages.microservice.handson.shared.validation.Valid * *(..))")
+        public Object proceed(ProceedingJoinPoint jp) throws Throwable {
+            return jp.proceed();
+        }
+    }
+
+    public static class Pizza {
+
+        @NotNull
+        private final String name;
+
+        Pizza(String name) {
+            this.name = name;
+        }
+    }
+
+    public interface PizzaService {
+
+        Pizza bake(Pizza pizza);
+
+        String name(String name);
+    }
+
+    public static class PizzaServiceImpl implements PizzaService {
+
+        @Override
+        @Valid
+        public Pizza bake(@Valid Pizza pizza) {
+            return pizza;
+        }
+
+        @Override
+        @Valid
+        public String name(String name) {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.epages.microservice.handson.shared.event;
+
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.constraints.NotNull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.ChannelAwareMessageListener;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+
+/**
+ * Opt-in variant of {@link AbstractEventSubscriber} that hands events over in batches - up to batch size events,
+ * or whatever arrived within the batch window after the first one. A batch is acknowledged once it was handled.
+ * If handling the batch fails, its events are handled one at a time, so a failing event does not hold up the
+ * others: it is requeued once and rejected when it fails again, which dead-letters it.
+ * <p>
+ * Batch subscribers are consumed with manual acknowledgement, see {@link EventAutoConfiguration}.
+ */
+public abstract class AbstractBatchEventSubscriber<T> extends AbstractEventSubscriber<T>
+        implements ChannelAwareMessageListener, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractBatchEventSubscriber.class);
+
+    private final Map<Channel, Batch> batches = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService windowTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "event-batch-window");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private int batchSize = 50;
+
+    private long batchWindowMillis = 200;
+
+    protected AbstractBatchEventSubscriber(@NotNull ObjectMapper objectMapper, @NotNull String type, @NotNull Class<T> payloadType) {
+        super(objectMapper, type, payloadType);
+    }
+
+    @Value("${rnd.events.listener.batch-size:50}")
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Value("${rnd.events.listener.batch-window-millis:200}")
+    public void setBatchWindowMillis(long batchWindowMillis) {
+        this.batchWindowMillis = batchWindowMillis;
+    }
+
+    @Override
+    public void onMessage(Message message, Channel channel) {
+        // a batch leaves the map once it is flushed, the message then starts a new batch
+        while (!batches.computeIfAbsent(channel, Batch::new).add(message)) {
+            LOGGER.trace("Batch of channel {} was flushed meanwhile", channel);
+        }
+    }
+
+    /**
+     * Handles events one at a time, e.g. when consumed outside of a listener container.
+     */
+    @Override
+    protected final void handleOwnType(T payload) {
+        handleOwnTypes(singletonList(payload));
+    }
+
+    protected abstract void handleOwnTypes(List<T> payloads);
+
+    public void consumeAll(List<Event<T>> events) {
+        final List<Event<T>> own = new ArrayList<>(events.size());
+        for (Event<T> event : events) {
+            if (isOwnType(event)) {
+                own.add(event);
+            } else {
+                handleForeignType(event.getType());
+            }
+        }
+        if (own.isEmpty()) {
+            return;
+        }
+        final long handlingSince = System.nanoTime();
+        final List<Event<T>> handled;
+        try {
+            handled = processOnce(own, fresh -> handleOwnTypes(fresh.stream().map(Event::getPayload).collect(toList())));
+        } catch (RuntimeException e) {
+            handleFailed(own.size());
+            throw e;
+        }
+        if (handled.size() < own.size()) {
+            LOGGER.info("Skipping {} duplicate events of type '{}'", own.size() - handled.size(), type);
+            skippedDuplicates(own.size() - handled.size());
+        }
+        // every event of the batch waited for the whole batch to be handled
+        final long handlerNanos = System.nanoTime() - handlingSince;
+        handled.forEach(event -> handled(event, handlerNanos));
+    }
+
+    @Override
+    public void destroy() {
+        windowTimer.shutdownNow();
+    }
+
+    /**
+     * Collects the messages of one consumer channel until they are flushed. Flushing happens under the batch lock
+     * and retires the batch, so batches of a channel are acknowledged strictly in order and acking with
+     * {@code multiple} never covers an open batch.
+     */
+    private class Batch {
+
+        private final Channel channel;
+
+        private final List<Message> messages = new ArrayList<>();
+
+        private boolean retired;
+
+        private Batch(Channel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * @return false if the batch was retired and takes no more messages
+         */
+        private synchronized boolean add(Message message) {
+            if (retired) {
+                return false;
+            }
+            messages.add(message);
+            if (messages.size() >= batchSize) {
+                flush();
+            } else if (messages.size() == 1) {
+                windowTimer.schedule(this::flushIfOpen, batchWindowMillis, TimeUnit.MILLISECONDS);
+            }
+            return true;
+        }
+
+        private synchronized void flushIfOpen() {
+            if (!retired) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            try {
+                if (channel.isOpen()) {
+                    handle();
+                } else {
+                    // the broker requeued the unacknowledged messages when the channel closed
+                    LOGGER.info("Dropping a batch of {} '{}' events of a closed channel", messages.size(), type);
+                }
+            } finally {
+                retired = true;
+                batches.remove(channel, this);
+            }
+        }
+
+        private void handle() {
+            final List<Message> decoded = new ArrayList<>(messages.size());
+            final List<Event<T>> events = new ArrayList<>(messages.size());
+            for (Message message : messages) {
+                try {
+                    events.add(extractEvent(message));
+                    decoded.add(message);
+                } catch (RuntimeException e) {
+                    LOGGER.error("Could not decode a '{}' event, rejecting it", type, e);
+                    reject(message);
+                }
+            }
+            if (events.isEmpty()) {
+                return;
+            }
+            try {
+                consumeAll(events);
+                acknowledge(decoded.get(decoded.size() - 1), true);
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.warn("Could not handle a batch of {} '{}' events, handling them one at a time", events.size(),
+                        type, e);
+            }
+            for (int i = 0; i < events.size(); i++) {
+                try {
+                    consumeAll(singletonList(events.get(i)));
+                    acknowledge(decoded.get(i), false);
+                } catch (RuntimeException e) {
+                    LOGGER.error("Could not handle '{}' event {}", type, events.get(i).getId(), e);
+                    requeueOnceOrReject(decoded.get(i));
+                }
+            }
+        }
+
+        private void acknowledge(Message message, boolean multiple) {
+            final long deliveryTag = message.getMessageProperties().getDeliveryTag();
+            try {
+                channel.basicAck(deliveryTag, multiple);
+            } catch (IOException | RuntimeException e) {
+                LOGGER.error("Could not acknowledge '{}' events up to {}", type, deliveryTag, e);
+            }
+        }
+
+        private void requeueOnceOrReject(Message message) {
+            if (message.getMessageProperties().isRedelivered()) {
+                reject(message);
+                return;
+            }
+            final long deliveryTag = message.getMessageProperties().getDeliveryTag();
+            try {
+                channel.basicNack(deliveryTag, false, true);
+            } catch (IOException | RuntimeException e) {
+                LOGGER.error("Could not requeue '{}' event {}", type, deliveryTag, e);
+            }
+        }
+
+        private void reject(Message message) {
+            final long deliveryTag = message.getMessageProperties().getDeliveryTag();
+            try {
+                channel.basicReject(deliveryTag, false);
+            } catch (IOException | RuntimeException e) {
+                LOGGER.error("Could not reject '{}' event {}", type, deliveryTag, e);
+            }
+        }
+    }
+}
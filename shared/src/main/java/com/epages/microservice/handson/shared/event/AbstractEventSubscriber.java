@@ -1,64 +1,181 @@
 package com.epages.microservice.handson.shared.event;
 
-import static com.epages.microservice.handson.shared.event.EventPublisher.EVENT_PAYLOAD;
-import static com.epages.microservice.handson.shared.event.EventPublisher.EVENT_TYPE;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Collections.singletonList;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import javax.validation.constraints.NotNull;
 
-import org.springframework.messaging.handler.annotation.Payload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.beans.factory.annotation.Autowired;
 
-import com.epages.microservice.handson.shared.json.JsonMapTypeReference;
+import com.epages.microservice.handson.shared.tracing.Span;
+import com.epages.microservice.handson.shared.tracing.Tracer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-public abstract class AbstractEventSubscriber {
+public abstract class AbstractEventSubscriber<T> implements MessageListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractEventSubscriber.class);
 
     protected final ObjectMapper objectMapper;
 
     protected final String type;
 
-    protected AbstractEventSubscriber(@NotNull ObjectMapper objectMapper, @NotNull String type) {
+    protected final Class<T> payloadType;
+
+    private final EventEnvelopeReader<T> eventReader;
+
+    private EventDeduplicator eventDeduplicator;
+
+    private EventMetrics eventMetrics;
+
+    private Tracer tracer;
+
+    protected AbstractEventSubscriber(@NotNull ObjectMapper objectMapper, @NotNull String type, @NotNull Class<T> payloadType) {
         this.objectMapper = checkNotNull(objectMapper);
         this.type = checkNotNull(type);
+        this.payloadType = checkNotNull(payloadType);
+        this.eventReader = new EventEnvelopeReader<>(objectMapper, type, payloadType);
     }
 
-    protected Map<String, Object> extractEvent(String jsonEvent) {
+    @Autowired(required = false)
+    public void setEventDeduplicator(EventDeduplicator eventDeduplicator) {
+        this.eventDeduplicator = eventDeduplicator;
+    }
+
+    @Autowired(required = false)
+    public void setEventMetrics(EventMetrics eventMetrics) {
+        this.eventMetrics = eventMetrics;
+    }
+
+    @Autowired(required = false)
+    public void setTracer(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    protected Event<T> extractEvent(String jsonEvent) {
         try {
-            return objectMapper.readValue(jsonEvent, new JsonMapTypeReference());
+            return eventReader.read(jsonEvent);
         } catch (IOException e) {
             throw new RuntimeException(String.format("Could not deserialize event '%s'", jsonEvent), e);
         }
     }
 
-    @RnDEventListener
-    public void consume(@Payload String jsonEvent) {
-        final Map<String, Object> event = extractEvent(jsonEvent);
+    /**
+     * Decodes the event in the encoding its content type announces, JSON if there is none.
+     */
+    protected Event<T> extractEvent(Message message) {
+        final EventEncoding encoding = EventEncoding.forContentType(message.getMessageProperties().getContentType());
+        try {
+            return eventReader.read(message.getBody(), encoding);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Could not deserialize %s event of %d bytes", encoding,
+                    message.getBody().length), e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message) {
+        if (tracer == null) {
+            consume(extractEvent(message));
+            return;
+        }
+        // the publisher's span is the parent, a new trace is started for events published outside of one
+        final Map<String, Object> headers = message.getMessageProperties().getHeaders();
+        final Span span = tracer.start("consume " + type, header(headers, Tracer.TRACE_ID_HEADER),
+                header(headers, Tracer.SPAN_ID_HEADER));
+        try {
+            consume(extractEvent(message));
+        } finally {
+            span.close();
+        }
+    }
+
+    // AMQP delivers string headers as LongString
+    private static String header(Map<String, Object> headers, String name) {
+        final Object value = headers.get(name);
+        return value == null ? null : value.toString();
+    }
+
+    public void consume(String jsonEvent) {
+        consume(extractEvent(jsonEvent));
+    }
+
+    private void consume(Event<T> event) {
         if (isOwnType(event)) {
-            handleOwnType(event);
+            handleOnce(event);
         } else {
-            handleForeignType(event);
+            handleForeignType(event.getType());
+        }
+    }
+
+    private void handleOnce(Event<T> event) {
+        final long handlingSince = System.nanoTime();
+        final List<Event<T>> handled;
+        try {
+            handled = processOnce(singletonList(event), fresh -> handleOwnType(event.getPayload()));
+        } catch (RuntimeException e) {
+            handleFailed(1);
+            throw e;
+        }
+        if (handled.isEmpty()) {
+            LOGGER.info("Skipping duplicate event {} of type '{}'", event.getId(), event.getType());
+            skippedDuplicates(1);
+            return;
+        }
+        handled(event, System.nanoTime() - handlingSince);
+    }
+
+    protected void handled(Event<T> event, long handlerNanos) {
+        if (eventMetrics != null) {
+            eventMetrics.handled(type, event.getTimestamp(), handlerNanos);
         }
     }
 
-    protected String getType(Map<String, Object> event) {
-        return event.get(EVENT_TYPE).toString();
+    protected void handleFailed(int events) {
+        if (eventMetrics != null) {
+            eventMetrics.handleFailed(type, events);
+        }
     }
 
-    protected boolean isOwnType(Map<String, Object> event) {
-        return type.equals(getType(event));
+    protected void skippedDuplicates(int events) {
+        if (eventMetrics != null) {
+            eventMetrics.skippedDuplicates(type, events);
+        }
+    }
+
+    /**
+     * Calls the handler with the events that were not processed before, and marks them as processed in the same
+     * transaction if there is an {@link EventDeduplicator}.
+     *
+     * @return the events that were handed to the handler
+     */
+    protected List<Event<T>> processOnce(List<Event<T>> events, Consumer<List<Event<T>>> handler) {
+        if (eventDeduplicator == null) {
+            handler.accept(events);
+            return events;
+        }
+        return eventDeduplicator.processOnce(events, handler);
     }
 
-    @SuppressWarnings("unchecked")
-    protected Map<String, Object> getPayload(Map<String, Object> event) {
-        return (Map<String, Object>) event.get(EVENT_PAYLOAD);
+    protected boolean isOwnType(Event<T> event) {
+        return type.equals(event.getType());
     }
 
-    protected void handleForeignType(Map<String, Object> event) {
+    protected void handleForeignType(String foreignType) {
         // overwrite me if needed
     }
 
-    protected abstract void handleOwnType(Map<String, Object> event);
-}
\ No newline at end of file
+    protected abstract void handleOwnType(T payload);
+}
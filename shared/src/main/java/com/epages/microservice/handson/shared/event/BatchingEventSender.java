@@ -0,0 +1,226 @@
+package com.epages.microservice.handson.shared.event;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.amqp.rabbit.support.MessagePropertiesConverter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import com.google.common.collect.ImmutableList;
+import com.rabbitmq.client.Channel;
+
+/**
+ * Decouples publishing from the broker: events are queued in a bounded in-memory backlog and a dedicated thread
+ * sends them in batches on its own channel, waiting for publisher confirms once per batch.
+ * A batch that is not confirmed is retried before its futures fail.
+ * <p>
+ * The connection factory must be dedicated to the sender, as its channels are put in confirm mode - cached channels
+ * of a shared factory would be handed out to others in that mode. The sender destroys the factory when it stops.
+ */
+public class BatchingEventSender implements EventSender, PublicMetrics, InitializingBean, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingEventSender.class);
+
+    private final ConnectionFactory connectionFactory;
+
+    private final String exchange;
+
+    private final BlockingQueue<PendingEvent> backlog;
+
+    private final int batchSize;
+
+    private final long offerTimeoutMillis;
+
+    private final long confirmTimeoutMillis;
+
+    private final int maxRetries;
+
+    private final long retryIntervalMillis;
+
+    private final MessagePropertiesConverter messagePropertiesConverter = new DefaultMessagePropertiesConverter();
+
+    private Thread senderThread;
+
+    private volatile boolean running;
+
+    private Channel channel;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong sentEvents = new AtomicLong();
+    private final AtomicLong failedEvents = new AtomicLong();
+    private final AtomicLong confirmLatencyMillis = new AtomicLong();
+    private volatile int lastBatchSize;
+    private volatile long lastConfirmLatencyMillis;
+
+    public BatchingEventSender(ConnectionFactory connectionFactory, String exchange, int backlogCapacity, int batchSize,
+                               long offerTimeoutMillis, long confirmTimeoutMillis, int maxRetries, long retryIntervalMillis) {
+        this.connectionFactory = connectionFactory;
+        this.exchange = exchange;
+        this.backlog = new ArrayBlockingQueue<>(backlogCapacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.confirmTimeoutMillis = confirmTimeoutMillis;
+        this.maxRetries = maxRetries;
+        this.retryIntervalMillis = retryIntervalMillis;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        running = true;
+        senderThread = new Thread(this::run, "event-sender");
+        senderThread.setDaemon(true);
+        senderThread.start();
+    }
+
+    @Override
+    public CompletableFuture<Void> send(String routingKey, Message message) {
+        final PendingEvent event = new PendingEvent(routingKey, message);
+        try {
+            if (!running || !backlog.offer(event, offerTimeoutMillis, MILLISECONDS)) {
+                throw new AmqpException(String.format("Event backlog is full (%s events), could not send '%s'",
+                        backlog.size(), routingKey));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmqpException(e);
+        }
+        return event.future;
+    }
+
+    private void run() {
+        final List<PendingEvent> batch = new ArrayList<>(batchSize);
+        while (running || !backlog.isEmpty()) {
+            try {
+                PendingEvent first = backlog.poll(100, MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                backlog.drainTo(batch, batchSize - 1);
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+        closeChannel();
+    }
+
+    private void sendBatch(List<PendingEvent> batch) throws InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                final long start = System.nanoTime();
+                final Channel channel = getChannel();
+                for (PendingEvent event : batch) {
+                    channel.basicPublish(exchange, event.routingKey, false,
+                            messagePropertiesConverter.fromMessageProperties(event.message.getMessageProperties(), UTF_8.name()),
+                            event.message.getBody());
+                }
+                channel.waitForConfirmsOrDie(confirmTimeoutMillis);
+                recordBatch(batch.size(), NANOSECONDS.toMillis(System.nanoTime() - start));
+                batch.forEach(event -> event.future.complete(null));
+                return;
+            } catch (Exception e) {
+                closeChannel();
+                if (attempt >= maxRetries) {
+                    LOGGER.error("Giving up on a batch of {} events after {} attempts", batch.size(), attempt + 1, e);
+                    failedEvents.addAndGet(batch.size());
+                    batch.forEach(event -> event.future.completeExceptionally(e));
+                    return;
+                }
+                LOGGER.warn("Could not send a batch of {} events, retrying: {}", batch.size(), e.getMessage());
+                Thread.sleep(retryIntervalMillis * (attempt + 1));
+            }
+        }
+    }
+
+    private Channel getChannel() throws Exception {
+        if (channel == null || !channel.isOpen()) {
+            channel = connectionFactory.createConnection().createChannel(false);
+            channel.confirmSelect();
+        }
+        return channel;
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (Exception e) {
+                LOGGER.debug("Could not close event channel", e);
+            }
+            channel = null;
+        }
+    }
+
+    private void recordBatch(int size, long latencyMillis) {
+        batches.incrementAndGet();
+        sentEvents.addAndGet(size);
+        confirmLatencyMillis.addAndGet(latencyMillis);
+        lastBatchSize = size;
+        lastConfirmLatencyMillis = latencyMillis;
+    }
+
+    public int getBacklogSize() {
+        return backlog.size();
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        final long batchCount = batches.get();
+        return ImmutableList.of(
+                new Metric<>("events.publisher.backlog", backlog.size()),
+                new Metric<>("events.publisher.batches", batchCount),
+                new Metric<>("events.publisher.sent", sentEvents.get()),
+                new Metric<>("events.publisher.failed", failedEvents.get()),
+                new Metric<>("events.publisher.batch.size.last", lastBatchSize),
+                new Metric<>("events.publisher.batch.size.avg", batchCount == 0 ? 0.0 : (double) sentEvents.get() / batchCount),
+                new Metric<>("events.publisher.confirm.latency.last", lastConfirmLatencyMillis),
+                new Metric<>("events.publisher.confirm.latency.avg", batchCount == 0 ? 0.0 : (double) confirmLatencyMillis.get() / batchCount));
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        // stop accepting events, but drain what is already queued
+        running = false;
+        if (senderThread != null) {
+            senderThread.join(confirmTimeoutMillis * (maxRetries + 1));
+        }
+        if (connectionFactory instanceof DisposableBean) {
+            ((DisposableBean) connectionFactory).destroy();
+        }
+    }
+
+    private static class PendingEvent {
+
+        private final String routingKey;
+
+        private final Message message;
+
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private PendingEvent(String routingKey, Message message) {
+            this.routingKey = routingKey;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.epages.microservice.handson.shared.event;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+import java.time.LocalDateTime;
+
+public class Event<T> {
+
+    private String id;
+
+    private String type;
+
+    private LocalDateTime timestamp;
+
+    private T payload;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public T getPayload() {
+        return payload;
+    }
+
+    public void setPayload(T payload) {
+        this.payload = payload;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this).add("id", id).add("type", type).add("timestamp", timestamp).add("payload", payload).toString();
+    }
+}
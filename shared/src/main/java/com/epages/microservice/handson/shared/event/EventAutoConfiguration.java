@@ -1,12 +1,28 @@
 package com.epages.microservice.handson.shared.event;
 
-import org.springframework.amqp.core.FanoutExchange;
+import java.time.Duration;
+
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.annotation.EnableRabbit;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.RejectAndDontRequeueRecoverer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.amqp.RabbitProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Configuration
 @ConditionalOnClass(EnableRabbit.class)
@@ -14,11 +30,23 @@ public class EventAutoConfiguration {
 
     public static final String RND_EVENTS = "rnd.events";
 
+    public static final String RND_EVENTS_DEAD = "rnd.events.dead";
+
+    @Bean
+    public TopicExchange eventsExchange() {
+        final boolean durable = true;
+        final boolean autoDelete = false;
+        return new TopicExchange(RND_EVENTS, durable, autoDelete);
+    }
+
+    /**
+     * Receives the events subscribers could not handle, routed by the name of the queue they came from.
+     */
     @Bean
-    public FanoutExchange eventsExchange() {
+    public TopicExchange deadEventsExchange() {
         final boolean durable = true;
         final boolean autoDelete = false;
-        return new FanoutExchange(RND_EVENTS, durable, autoDelete);
+        return new TopicExchange(RND_EVENTS_DEAD, durable, autoDelete);
     }
 
     @Bean
@@ -29,7 +57,129 @@ public class EventAutoConfiguration {
     }
 
     @Bean
-    public EventPublisher eventPublisher() {
-        return new EventPublisher();
+    @ConditionalOnMissingBean(EventSender.class)
+    @ConditionalOnProperty(name = "rnd.events.publisher.async", havingValue = "true", matchIfMissing = true)
+    public BatchingEventSender batchingEventSender(RabbitProperties rabbitProperties,
+            @Value("${rnd.events.publisher.backlog-capacity:10000}") Integer backlogCapacity,
+            @Value("${rnd.events.publisher.batch-size:100}") Integer batchSize,
+            @Value("${rnd.events.publisher.offer-timeout-millis:1000}") Long offerTimeoutMillis,
+            @Value("${rnd.events.publisher.confirm-timeout-millis:5000}") Long confirmTimeoutMillis,
+            @Value("${rnd.events.publisher.max-retries:3}") Integer maxRetries,
+            @Value("${rnd.events.publisher.retry-interval-millis:500}") Long retryIntervalMillis) {
+        return new BatchingEventSender(eventSenderConnectionFactory(rabbitProperties), eventsExchange().getName(),
+                backlogCapacity, batchSize, offerTimeoutMillis, confirmTimeoutMillis, maxRetries, retryIntervalMillis);
+    }
+
+    /**
+     * A connection of the batching sender's own, not a bean - it would replace the shared connection factory.
+     */
+    private static CachingConnectionFactory eventSenderConnectionFactory(RabbitProperties rabbitProperties) {
+        final CachingConnectionFactory connectionFactory = new CachingConnectionFactory();
+        connectionFactory.setAddresses(rabbitProperties.getAddresses());
+        if (rabbitProperties.getUsername() != null) {
+            connectionFactory.setUsername(rabbitProperties.getUsername());
+        }
+        if (rabbitProperties.getPassword() != null) {
+            connectionFactory.setPassword(rabbitProperties.getPassword());
+        }
+        if (rabbitProperties.getVirtualHost() != null) {
+            connectionFactory.setVirtualHost(rabbitProperties.getVirtualHost());
+        }
+        if (rabbitProperties.getRequestedHeartbeat() != null) {
+            connectionFactory.setRequestedHeartBeat(rabbitProperties.getRequestedHeartbeat());
+        }
+        return connectionFactory;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(EventSender.class)
+    @ConditionalOnProperty(name = "rnd.events.publisher.async", havingValue = "false")
+    public RabbitTemplateEventSender rabbitTemplateEventSender(RabbitTemplate rabbitTemplate) {
+        return new RabbitTemplateEventSender(rabbitTemplate);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public EventPublisher eventPublisher(ObjectMapper objectMapper, EventSender eventSender, EventMetrics eventMetrics,
+            @Value("${rnd.events.publisher.encoding:JSON}") EventEncoding encoding) {
+        EventPublisher eventPublisher = new EventPublisher(objectMapper, eventSender, encoding);
+        eventPublisher.setEventMetrics(eventMetrics);
+        return eventPublisher;
+    }
+
+    @Bean
+    public EventMetrics eventMetrics(@Value("${rnd.events.metrics.window-millis:60000}") Long windowMillis) {
+        return new EventMetrics(windowMillis);
+    }
+
+    @Bean
+    public EventDeduplicator eventDeduplicator(ProcessedEventRepository processedEventRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${rnd.events.dedup.window-size:10000}") Integer windowSize) {
+        return new EventDeduplicator(processedEventRepository, transactionManager, windowSize);
+    }
+
+    @Bean
+    public ProcessedEventPruner processedEventPruner(ProcessedEventRepository processedEventRepository,
+            @Value("${rnd.events.dedup.retention-hours:168}") Long retentionHours,
+            @Value("${rnd.events.dedup.prune-interval-millis:3600000}") Long pruneIntervalMillis) {
+        return new ProcessedEventPruner(processedEventRepository, Duration.ofHours(retentionHours), pruneIntervalMillis);
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory eventListenerContainerFactory(ConnectionFactory connectionFactory,
+            @Value("${rnd.events.listener.prefetch:10}") Integer prefetch,
+            @Value("${rnd.events.listener.concurrency:1}") Integer concurrency,
+            @Value("${rnd.events.listener.max-concurrency:4}") Integer maxConcurrency,
+            @Value("${rnd.events.listener.max-attempts:3}") Integer maxAttempts,
+            @Value("${rnd.events.listener.retry-interval-millis:500}") Long retryIntervalMillis) {
+        SimpleRabbitListenerContainerFactory containerFactory = new SimpleRabbitListenerContainerFactory();
+        containerFactory.setConnectionFactory(connectionFactory);
+        containerFactory.setAcknowledgeMode(AcknowledgeMode.AUTO);
+        containerFactory.setPrefetchCount(prefetch);
+        containerFactory.setConcurrentConsumers(concurrency);
+        containerFactory.setMaxConcurrentConsumers(maxConcurrency);
+        // an event that keeps failing is dead-lettered instead of being redelivered in a tight loop
+        containerFactory.setAdviceChain(RetryInterceptorBuilder.stateless()
+                .maxAttempts(maxAttempts)
+                .backOffOptions(retryIntervalMillis, 2.0, retryIntervalMillis * 4)
+                .recoverer(new RejectAndDontRequeueRecoverer())
+                .build());
+        containerFactory.setDefaultRequeueRejected(false);
+        return containerFactory;
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory eventBatchListenerContainerFactory(ConnectionFactory connectionFactory,
+            @Value("${rnd.events.listener.batch-size:50}") Integer batchSize,
+            @Value("${rnd.events.listener.concurrency:1}") Integer concurrency,
+            @Value("${rnd.events.listener.max-concurrency:4}") Integer maxConcurrency) {
+        SimpleRabbitListenerContainerFactory containerFactory = new SimpleRabbitListenerContainerFactory();
+        containerFactory.setConnectionFactory(connectionFactory);
+        // batch subscribers acknowledge a whole batch once it is handled
+        containerFactory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        // room for the batch being handled and the next one filling up
+        containerFactory.setPrefetchCount(batchSize * 2);
+        containerFactory.setConcurrentConsumers(concurrency);
+        containerFactory.setMaxConcurrentConsumers(maxConcurrency);
+        return containerFactory;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(InMemoryEventBus.class)
+    public EventSubscriberRegistrar eventSubscriberRegistrar(
+            @Qualifier("eventListenerContainerFactory") SimpleRabbitListenerContainerFactory eventListenerContainerFactory,
+            @Qualifier("eventBatchListenerContainerFactory") SimpleRabbitListenerContainerFactory eventBatchListenerContainerFactory,
+            @Value("${spring.application.name:}") String applicationName) {
+        return new EventSubscriberRegistrar(eventsExchange(), deadEventsExchange(), applicationName,
+                eventListenerContainerFactory, eventBatchListenerContainerFactory);
+    }
+
+    @Bean
+    @ConditionalOnBean(InMemoryEventBus.class)
+    public InMemoryEventSubscriberRegistrar inMemoryEventSubscriberRegistrar(InMemoryEventBus inMemoryEventBus,
+            @Value("${spring.application.name:}") String applicationName,
+            @Value("${rnd.events.listener.max-concurrency:4}") Integer maxConcurrency) {
+        return new InMemoryEventSubscriberRegistrar(inMemoryEventBus, applicationName, maxConcurrency);
     }
 }
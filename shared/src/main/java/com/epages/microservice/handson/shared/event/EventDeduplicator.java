@@ -0,0 +1,86 @@
+package com.epages.microservice.handson.shared.event;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Recognizes events that were delivered before. Recently seen event ids are kept in a bounded LRU window, so
+ * duplicates within the window are rejected without touching the database. Everything else is checked against the
+ * processed events table, which also covers restarts and ids that fell out of the window.
+ * <p>
+ * An event is marked as processed in the transaction its handler runs in, so either both the marker and the
+ * handler's changes are committed or neither is - a failed or interrupted handler leaves the event to be handled
+ * again when the broker redelivers it.
+ */
+public class EventDeduplicator {
+
+    private final ProcessedEventRepository processedEventRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, Boolean> window;
+
+    public EventDeduplicator(ProcessedEventRepository processedEventRepository,
+            PlatformTransactionManager transactionManager, int windowSize) {
+        this.processedEventRepository = processedEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.window = Collections.synchronizedMap(new LinkedHashMap<String, Boolean>(windowSize * 4 / 3 + 1, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > windowSize;
+            }
+        });
+    }
+
+    /**
+     * Hands the events that were not processed before to the handler and marks them as processed, in one
+     * transaction that the handler's changes join. Events without id are always handed over. The handler is not
+     * called if all events were processed before.
+     *
+     * @return the events that were handed to the handler
+     */
+    public <T> List<Event<T>> processOnce(List<Event<T>> events, Consumer<List<Event<T>>> handler) {
+        final Set<String> seen = new HashSet<>();
+        final List<Event<T>> unseen = events.stream()
+                .filter(event -> event.getId() == null || (!window.containsKey(event.getId()) && seen.add(event.getId())))
+                .collect(toList());
+        if (unseen.isEmpty()) {
+            return unseen;
+        }
+        final List<Event<T>> fresh = transactionTemplate.execute(status -> {
+            final Set<String> processed = processedEventRepository.findAll(seen).stream()
+                    .map(ProcessedEvent::getId)
+                    .collect(toSet());
+            final List<Event<T>> notProcessed = unseen.stream()
+                    .filter(event -> !processed.contains(event.getId()))
+                    .collect(toList());
+            if (!notProcessed.isEmpty()) {
+                // a concurrent delivery of the same event fails on the primary key here, before its handler runs
+                processedEventRepository.save(notProcessed.stream()
+                        .filter(event -> event.getId() != null)
+                        .map(event -> new ProcessedEvent(event.getId(), event.getType()))
+                        .collect(toList()));
+                processedEventRepository.flush();
+                handler.accept(notProcessed);
+            }
+            return notProcessed;
+        });
+        // only ids that are committed as processed enter the window, a failed transaction leaves no trace of them
+        unseen.stream().map(Event::getId).filter(Objects::nonNull).forEach(id -> window.put(id, Boolean.TRUE));
+        return fresh;
+    }
+}
@@ -0,0 +1,47 @@
+package com.epages.microservice.handson.shared.event;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Wire format of events, announced in the content type of each message.
+ */
+public enum EventEncoding {
+
+    JSON("application/json") {
+        @Override
+        JsonFactory createFactory(ObjectMapper objectMapper) {
+            return objectMapper.getFactory();
+        }
+    },
+
+    /**
+     * Binary JSON: the same structure, but smaller and cheaper to parse.
+     */
+    SMILE("application/x-jackson-smile") {
+        @Override
+        JsonFactory createFactory(ObjectMapper objectMapper) {
+            return new SmileFactory(objectMapper);
+        }
+    };
+
+    private final String contentType;
+
+    EventEncoding(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    abstract JsonFactory createFactory(ObjectMapper objectMapper);
+
+    /**
+     * Events of publishers that predate the encodings were sent as text/plain JSON, so anything unknown is JSON.
+     */
+    public static EventEncoding forContentType(String contentType) {
+        return SMILE.contentType.equals(contentType) ? SMILE : JSON;
+    }
+}
@@ -0,0 +1,93 @@
+package com.epages.microservice.handson.shared.event;
+
+import static com.epages.microservice.handson.shared.event.EventPublisher.EVENT_ID;
+import static com.epages.microservice.handson.shared.event.EventPublisher.EVENT_PAYLOAD;
+import static com.epages.microservice.handson.shared.event.EventPublisher.EVENT_TIMESTAMP;
+import static com.epages.microservice.handson.shared.event.EventPublisher.EVENT_TYPE;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * Streams over an event envelope and only binds the payload if the event is of the expected type.
+ * Events of any other type are returned as soon as their type is known, without touching the payload.
+ */
+class EventEnvelopeReader<T> {
+
+    private final Map<EventEncoding, JsonFactory> factories = new EnumMap<>(EventEncoding.class);
+
+    private final String ownType;
+
+    private final ObjectReader payloadReader;
+
+    EventEnvelopeReader(ObjectMapper objectMapper, String ownType, Class<T> payloadType) {
+        for (EventEncoding encoding : EventEncoding.values()) {
+            factories.put(encoding, encoding.createFactory(objectMapper));
+        }
+        this.ownType = checkNotNull(ownType);
+        this.payloadReader = objectMapper.readerFor(payloadType);
+    }
+
+    Event<T> read(String json) throws IOException {
+        try (JsonParser parser = factories.get(EventEncoding.JSON).createParser(json)) {
+            return read(parser);
+        }
+    }
+
+    Event<T> read(byte[] event, EventEncoding encoding) throws IOException {
+        try (JsonParser parser = factories.get(encoding).createParser(event)) {
+            return read(parser);
+        }
+    }
+
+    Event<T> read(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException("Event is not a JSON object", parser.getCurrentLocation());
+        }
+        final Event<T> event = new Event<>();
+        TokenBuffer bufferedPayload = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            parser.nextToken();
+            if (EVENT_ID.equals(field)) {
+                event.setId(parser.getValueAsString());
+            } else if (EVENT_TYPE.equals(field)) {
+                event.setType(parser.getValueAsString());
+                if (!ownType.equals(event.getType())) {
+                    return event;
+                }
+            } else if (EVENT_TIMESTAMP.equals(field)) {
+                event.setTimestamp(LocalDateTime.parse(parser.getValueAsString()));
+            } else if (EVENT_PAYLOAD.equals(field)) {
+                if (event.getType() != null) {
+                    event.setPayload(payloadReader.readValue(parser));
+                } else {
+                    // type not seen yet - keep the raw tokens until we know whether to bind them
+                    bufferedPayload = new TokenBuffer(parser);
+                    bufferedPayload.copyCurrentStructure(parser);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (event.getType() == null) {
+            throw JsonMappingException.from(parser, String.format("Event does not contain a '%s'", EVENT_TYPE));
+        }
+        if (bufferedPayload != null) {
+            event.setPayload(payloadReader.readValue(bufferedPayload.asParser()));
+        }
+        return event;
+    }
+}
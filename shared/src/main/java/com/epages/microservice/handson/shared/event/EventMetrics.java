@@ -0,0 +1,146 @@
+package com.epages.microservice.handson.shared.event;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+/**
+ * Counts published and consumed events per type and keeps histograms of how long sending them takes, how long
+ * subscribers take to handle them and how old they are when handling starts (lag, from the envelope's timestamp).
+ * Counts are totals since the start, rates and percentiles cover the last one to two windows.
+ * <p>
+ * Exposed on {@code /metrics}, e.g. {@code /metrics/events.consumed.OrderCreated.*}.
+ */
+public class EventMetrics implements PublicMetrics {
+
+    private static final double[] PERCENTILES = {50, 95, 99};
+
+    private final long windowMillis;
+
+    private final ConcurrentMap<String, Publications> publications = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Consumptions> consumptions = new ConcurrentHashMap<>();
+
+    public EventMetrics() {
+        this(60000);
+    }
+
+    public EventMetrics(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * @param sendNanos until the sender reported the event as sent, e.g. confirmed by the broker
+     */
+    public void published(String type, long sendNanos) {
+        final Publications publication = publications(type);
+        publication.sent.incrementAndGet();
+        publication.sendLatency.record(NANOSECONDS.toMicros(sendNanos));
+    }
+
+    public void publishFailed(String type) {
+        publications(type).failed.incrementAndGet();
+    }
+
+    /**
+     * @param timestamp when the event was published, null if unknown
+     */
+    public void handled(String type, LocalDateTime timestamp, long handlerNanos) {
+        final Consumptions consumption = consumptions(type);
+        consumption.handled.incrementAndGet();
+        consumption.handlerLatency.record(NANOSECONDS.toMicros(handlerNanos));
+        if (timestamp != null) {
+            // the timestamp is the publisher's local time, lag across hosts is only as accurate as their clocks
+            final long ageNanos = Duration.between(timestamp, LocalDateTime.now()).toNanos();
+            consumption.lag.record(NANOSECONDS.toMicros(ageNanos - handlerNanos));
+        }
+    }
+
+    public void handleFailed(String type, int events) {
+        consumptions(type).failed.addAndGet(events);
+    }
+
+    public void skippedDuplicates(String type, int events) {
+        consumptions(type).duplicates.addAndGet(events);
+    }
+
+    private Publications publications(String type) {
+        return publications.computeIfAbsent(type, t -> new Publications(windowMillis));
+    }
+
+    private Consumptions consumptions(String type) {
+        return consumptions.computeIfAbsent(type, t -> new Consumptions(windowMillis));
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        final List<Metric<?>> metrics = new ArrayList<>();
+        publications.forEach((type, publication) -> {
+            final String prefix = "events.published." + type;
+            final LatencyHistogram.Snapshot sendLatency = publication.sendLatency.snapshot();
+            metrics.add(new Metric<>(prefix + ".count", publication.sent.get()));
+            metrics.add(new Metric<>(prefix + ".failed", publication.failed.get()));
+            metrics.add(new Metric<>(prefix + ".rate", sendLatency.getRate()));
+            addPercentiles(metrics, prefix + ".send.millis", sendLatency);
+        });
+        consumptions.forEach((type, consumption) -> {
+            final String prefix = "events.consumed." + type;
+            final LatencyHistogram.Snapshot handlerLatency = consumption.handlerLatency.snapshot();
+            metrics.add(new Metric<>(prefix + ".count", consumption.handled.get()));
+            metrics.add(new Metric<>(prefix + ".failed", consumption.failed.get()));
+            metrics.add(new Metric<>(prefix + ".duplicates", consumption.duplicates.get()));
+            metrics.add(new Metric<>(prefix + ".rate", handlerLatency.getRate()));
+            addPercentiles(metrics, prefix + ".handler.millis", handlerLatency);
+            addPercentiles(metrics, prefix + ".lag.millis", consumption.lag.snapshot());
+        });
+        return metrics;
+    }
+
+    private static void addPercentiles(List<Metric<?>> metrics, String prefix, LatencyHistogram.Snapshot snapshot) {
+        for (double percentile : PERCENTILES) {
+            metrics.add(new Metric<>(prefix + ".p" + (int) percentile, snapshot.getPercentile(percentile)));
+        }
+        metrics.add(new Metric<>(prefix + ".max", snapshot.getMax()));
+    }
+
+    private static final class Publications {
+
+        private final AtomicLong sent = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        private final LatencyHistogram sendLatency;
+
+        private Publications(long windowMillis) {
+            this.sendLatency = new LatencyHistogram(windowMillis);
+        }
+    }
+
+    private static final class Consumptions {
+
+        private final AtomicLong handled = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        private final AtomicLong duplicates = new AtomicLong();
+
+        private final LatencyHistogram handlerLatency;
+
+        private final LatencyHistogram lag;
+
+        private Consumptions(long windowMillis) {
+            this.handlerLatency = new LatencyHistogram(windowMillis);
+            this.lag = new LatencyHistogram(windowMillis);
+        }
+    }
+}
@@ -1,61 +1,170 @@
 package com.epages.microservice.handson.shared.event;
 
-import java.io.IOException;
+import static com.fasterxml.jackson.databind.SerializationFeature.INDENT_OUTPUT;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import com.epages.microservice.handson.shared.json.JsonMapTypeReference;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 
+import com.epages.microservice.handson.shared.tracing.Span;
+import com.epages.microservice.handson.shared.tracing.Tracer;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.collect.ImmutableMap;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 public class EventPublisher {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EventPublisher.class);
 
+    public static final String EVENT_ID = "id";
+
     public static final String EVENT_TYPE = "type";
 
     public static final String EVENT_TIMESTAMP = "timestamp";
 
     public static final String EVENT_PAYLOAD = "payload";
 
-    @Autowired
-    private ObjectMapper objectMapper;
+    // one buffer per publishing thread, reset before every event
+    private static final ThreadLocal<ByteArrayBuilder> BUFFER = ThreadLocal.withInitial(ByteArrayBuilder::new);
+
+    private final ObjectMapper objectMapper;
+
+    private final EventSender eventSender;
 
-    @Autowired
-    private RabbitTemplate rabbitTemplate;
+    private final EventEncoding encoding;
 
-    public void publish(String type, String jsonPayload) {
-        final String event = createEvent(type, jsonPayload);
-        LOGGER.info("Publishing event '{}'", event);
-        rabbitTemplate.convertAndSend(event);
+    private final JsonFactory eventFactory;
+
+    // writers are immutable and resolve their serializer once, so they are shared per payload type
+    private final ConcurrentMap<Class<?>, ObjectWriter> payloadWriters = new ConcurrentHashMap<>();
+
+    private EventMetrics eventMetrics;
+
+    public EventPublisher(ObjectMapper objectMapper, EventSender eventSender) {
+        this(objectMapper, eventSender, EventEncoding.JSON);
     }
 
-    public void publish(String type, Map<String, Object> payloadMap) {
-        String jsonPayload = null;
-        try {
-            jsonPayload = objectMapper.writeValueAsString(payloadMap);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(String.format("Could not serialize event from payload '%s'", payloadMap), e);
+    public EventPublisher(ObjectMapper objectMapper, EventSender eventSender, EventEncoding encoding) {
+        this.objectMapper = objectMapper;
+        this.eventSender = eventSender;
+        this.encoding = encoding;
+        this.eventFactory = encoding.createFactory(objectMapper);
+    }
+
+    public void setEventMetrics(EventMetrics eventMetrics) {
+        this.eventMetrics = eventMetrics;
+    }
+
+    public CompletableFuture<Void> publish(String type, String jsonPayload) {
+        return publish(newEventId(), type, jsonPayload);
+    }
+
+    /**
+     * Publishes an event under a given id, e.g. to send an event again that must be recognized as a duplicate.
+     */
+    public CompletableFuture<Void> publish(String eventId, String type, String jsonPayload) {
+        return send(type, createEvent(eventId, type, generator -> writeJsonPayload(generator, jsonPayload)));
+    }
+
+    public CompletableFuture<Void> publish(String type, Object payload) {
+        final ObjectWriter payloadWriter = payloadWriters.computeIfAbsent(payload.getClass(), objectMapper::writerFor);
+        return send(type, createEvent(newEventId(), type, generator -> payloadWriter.writeValue(generator, payload)));
+    }
+
+    public static String newEventId() {
+        return UUID.randomUUID().toString();
+    }
+
+    private void writeJsonPayload(JsonGenerator generator, String jsonPayload) throws IOException {
+        if (encoding == EventEncoding.JSON) {
+            generator.writeRawValue(jsonPayload);
+            return;
+        }
+        // binary formats have no raw values, the payload is transcoded token by token
+        try (JsonParser parser = objectMapper.getFactory().createParser(jsonPayload)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
         }
-        publish(type, jsonPayload);
     }
 
-    protected String createEvent(String type, String jsonPayload) {
+    protected CompletableFuture<Void> send(String type, byte[] event) {
+        if (LOGGER.isDebugEnabled() && encoding == EventEncoding.JSON) {
+            LOGGER.debug("Publishing event '{}'", new String(event, UTF_8));
+        } else {
+            LOGGER.info("Publishing event of type '{}'", type);
+        }
+        // the event type is the routing key, so the exchange only forwards it to queues bound for that type
+        final long sendingSince = System.nanoTime();
+        final CompletableFuture<Void> sent;
         try {
-            return objectMapper.writeValueAsString(ImmutableMap.of( //
-                    EVENT_TYPE, type, //
-                    EVENT_TIMESTAMP, LocalDateTime.now().toString(), //
-                    EVENT_PAYLOAD, objectMapper.readValue(jsonPayload, new JsonMapTypeReference()) //
-            ));
+            sent = eventSender.send(type, new Message(event, createMessageProperties(event)));
+        } catch (RuntimeException e) {
+            if (eventMetrics != null) {
+                eventMetrics.publishFailed(type);
+            }
+            throw e;
+        }
+        if (eventMetrics != null) {
+            sent.whenComplete((result, e) -> {
+                if (e == null) {
+                    eventMetrics.published(type, System.nanoTime() - sendingSince);
+                } else {
+                    eventMetrics.publishFailed(type);
+                }
+            });
+        }
+        return sent;
+    }
+
+    protected MessageProperties createMessageProperties(byte[] event) {
+        MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setContentType(encoding.getContentType());
+        if (encoding == EventEncoding.JSON) {
+            messageProperties.setContentEncoding(UTF_8.name());
+        }
+        messageProperties.setContentLength(event.length);
+        final Span span = Tracer.currentSpan();
+        if (span != null) {
+            messageProperties.setHeader(Tracer.TRACE_ID_HEADER, span.getTraceId());
+            messageProperties.setHeader(Tracer.SPAN_ID_HEADER, span.getSpanId());
+        }
+        return messageProperties;
+    }
+
+    protected byte[] createEvent(String eventId, String type, PayloadWriter payloadWriter) {
+        final ByteArrayBuilder buffer = BUFFER.get();
+        buffer.reset();
+        try (JsonGenerator generator = eventFactory.createGenerator(buffer)) {
+            if (encoding == EventEncoding.JSON && objectMapper.isEnabled(INDENT_OUTPUT)) {
+                generator.useDefaultPrettyPrinter();
+            }
+            generator.writeStartObject();
+            generator.writeStringField(EVENT_ID, eventId);
+            generator.writeStringField(EVENT_TYPE, type);
+            generator.writeStringField(EVENT_TIMESTAMP, LocalDateTime.now().toString());
+            generator.writeFieldName(EVENT_PAYLOAD);
+            payloadWriter.write(generator);
+            generator.writeEndObject();
         } catch (IOException e) {
-            throw new RuntimeException(String.format("Could not serialize event from payload '%s'", jsonPayload), e);
+            throw new RuntimeException(String.format("Could not serialize event of type '%s'", type), e);
         }
+        return buffer.toByteArray();
+    }
+
+    @FunctionalInterface
+    protected interface PayloadWriter {
+        void write(JsonGenerator generator) throws IOException;
     }
 }
@@ -0,0 +1,13 @@
+package com.epages.microservice.handson.shared.event;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.amqp.core.Message;
+
+/**
+ * Hands serialized events over to the broker. The returned future completes once the broker took over the event.
+ */
+public interface EventSender {
+
+    CompletableFuture<Void> send(String routingKey, Message message);
+}
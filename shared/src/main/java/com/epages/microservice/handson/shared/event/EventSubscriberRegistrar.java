@@ -0,0 +1,107 @@
+package com.epages.microservice.handson.shared.event;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.util.StringUtils;
+
+/**
+ * Registers a listener for every {@link AbstractEventSubscriber} bean, bound to the events exchange
+ * with the subscriber's event type as routing key - so a subscriber only receives its own events.
+ * <p>
+ * The queue is named {@code <application name>.<event type>} and is durable, so all instances of a service
+ * compete for the same events and nothing is lost while they are down.
+ * <p>
+ * {@link AbstractBatchEventSubscriber}s get a container that leaves acknowledging to the subscriber. Events a
+ * subscriber rejects are dead-lettered to the dead events exchange and kept in the {@code <queue name>.dead} queue.
+ * As queues cannot change their arguments, queues declared before they were dead-lettered must be deleted once.
+ */
+public class EventSubscriberRegistrar implements RabbitListenerConfigurer, BeanFactoryAware {
+
+    private static final String DEAD_LETTER_EXCHANGE = "x-dead-letter-exchange";
+
+    private static final String DEAD_LETTER_ROUTING_KEY = "x-dead-letter-routing-key";
+
+    private final TopicExchange eventsExchange;
+
+    private final TopicExchange deadEventsExchange;
+
+    private final String applicationName;
+
+    private final RabbitListenerContainerFactory<?> containerFactory;
+
+    private final RabbitListenerContainerFactory<?> batchContainerFactory;
+
+    private ConfigurableListableBeanFactory beanFactory;
+
+    public EventSubscriberRegistrar(TopicExchange eventsExchange, TopicExchange deadEventsExchange,
+                                    String applicationName,
+                                    RabbitListenerContainerFactory<?> containerFactory,
+                                    RabbitListenerContainerFactory<?> batchContainerFactory) {
+        this.eventsExchange = eventsExchange;
+        this.deadEventsExchange = deadEventsExchange;
+        this.applicationName = applicationName;
+        this.containerFactory = containerFactory;
+        this.batchContainerFactory = batchContainerFactory;
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        this.beanFactory = (ConfigurableListableBeanFactory) beanFactory;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void configureRabbitListeners(RabbitListenerEndpointRegistrar registrar) {
+        Map<String, AbstractEventSubscriber> subscribers = beanFactory.getBeansOfType(AbstractEventSubscriber.class);
+        subscribers.forEach((beanName, subscriber) -> {
+            final boolean batch = subscriber instanceof AbstractBatchEventSubscriber;
+            Queue queue = createQueue(subscriber.getType());
+            Binding binding = BindingBuilder.bind(queue).to(eventsExchange).with(subscriber.getType());
+            // RabbitAdmin declares all Queue and Binding beans once the connection is established
+            beanFactory.registerSingleton(beanName + ".queue", queue);
+            beanFactory.registerSingleton(beanName + ".binding", binding);
+            if (!(queue instanceof AnonymousQueue)) {
+                Queue deadQueue = new Queue(queue.getName() + ".dead");
+                beanFactory.registerSingleton(beanName + ".deadQueue", deadQueue);
+                beanFactory.registerSingleton(beanName + ".deadBinding",
+                        BindingBuilder.bind(deadQueue).to(deadEventsExchange).with(queue.getName()));
+            }
+
+            SimpleRabbitListenerEndpoint endpoint = new SimpleRabbitListenerEndpoint();
+            endpoint.setId(beanName);
+            endpoint.setQueues(queue);
+            endpoint.setMessageListener(subscriber);
+            registrar.registerEndpoint(endpoint, batch ? batchContainerFactory : containerFactory);
+        });
+    }
+
+    private Queue createQueue(String type) {
+        if (!StringUtils.hasText(applicationName)) {
+            // without a service name there is nothing to share the queue with
+            return new AnonymousQueue();
+        }
+        final boolean durable = true;
+        final boolean exclusive = false;
+        final boolean autoDelete = false;
+        final String name = applicationName + "." + type;
+        final Map<String, Object> arguments = new HashMap<>();
+        // routed by queue name, services that subscribe to the same type only get their own dead events
+        arguments.put(DEAD_LETTER_EXCHANGE, deadEventsExchange.getName());
+        arguments.put(DEAD_LETTER_ROUTING_KEY, name);
+        return new Queue(name, durable, exclusive, autoDelete, arguments);
+    }
+}
@@ -0,0 +1,133 @@
+package com.epages.microservice.handson.shared.event;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.beans.factory.DisposableBean;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Stand-in for the RabbitMQ events exchange within one JVM, e.g. to run several services in one process.
+ * Like the exchange it routes every event by its type to all queues bound for that type. Each queue has its own
+ * consumer threads. An event its subscriber fails on is redelivered a few times and then dropped.
+ * <p>
+ * {@link EventAutoConfiguration} sends events to and registers subscribers with an {@code InMemoryEventBus} bean,
+ * if there is one, instead of RabbitMQ - also one of a parent context that is shared by several services.
+ */
+public class InMemoryEventBus implements EventSender, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InMemoryEventBus.class);
+
+    private static final CompletableFuture<Void> SENT = CompletableFuture.completedFuture(null);
+
+    private final ConcurrentMap<String, Queue> queues = new ConcurrentHashMap<>();
+
+    private final List<BiConsumer<String, Message>> listeners = new CopyOnWriteArrayList<>();
+
+    private final int maxDeliveries;
+
+    private final long redeliveryDelayMillis;
+
+    private final ScheduledExecutorService redeliveryTimer = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("event-redelivery").setDaemon(true).build());
+
+    public InMemoryEventBus() {
+        this(3, 100);
+    }
+
+    public InMemoryEventBus(int maxDeliveries, long redeliveryDelayMillis) {
+        this.maxDeliveries = maxDeliveries;
+        this.redeliveryDelayMillis = redeliveryDelayMillis;
+    }
+
+    @Override
+    public CompletableFuture<Void> send(String routingKey, Message message) {
+        listeners.forEach(listener -> listener.accept(routingKey, message));
+        queues.values().stream()
+                .filter(queue -> queue.routingKey.equals(routingKey))
+                .forEach(queue -> enqueue(queue, message, 1));
+        return SENT;
+    }
+
+    public void bind(String queueName, AbstractEventSubscriber<?> subscriber, int consumers) {
+        final Queue queue = new Queue(queueName, subscriber, consumers);
+        if (queues.putIfAbsent(queueName, queue) != null) {
+            queue.consumers.shutdown();
+            throw new IllegalStateException(String.format("Queue '%s' is bound already", queueName));
+        }
+    }
+
+    public void unbind(String queueName) {
+        final Queue queue = queues.remove(queueName);
+        if (queue != null) {
+            queue.consumers.shutdown();
+        }
+    }
+
+    /**
+     * Lets a listener see every event on the sending thread before it is routed, e.g. to trace events.
+     */
+    public void addListener(BiConsumer<String, Message> listener) {
+        listeners.add(listener);
+    }
+
+    private void deliver(Queue queue, Message message, int delivery) {
+        try {
+            queue.subscriber.onMessage(message);
+        } catch (RuntimeException e) {
+            if (delivery >= maxDeliveries) {
+                LOGGER.error("Dropping '{}' event of queue '{}' after {} deliveries", queue.routingKey, queue.name, delivery, e);
+                return;
+            }
+            LOGGER.warn("Redelivering '{}' event of queue '{}': {}", queue.routingKey, queue.name, e.toString());
+            redeliveryTimer.schedule(() -> enqueue(queue, message, delivery + 1), redeliveryDelayMillis, MILLISECONDS);
+        }
+    }
+
+    private void enqueue(Queue queue, Message message, int delivery) {
+        try {
+            queue.consumers.execute(() -> deliver(queue, message, delivery));
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("Queue '{}' was unbound, dropping its '{}' event", queue.name, queue.routingKey);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        redeliveryTimer.shutdownNow();
+        queues.keySet().forEach(this::unbind);
+    }
+
+    private static final class Queue {
+
+        private final String name;
+
+        private final String routingKey;
+
+        private final AbstractEventSubscriber<?> subscriber;
+
+        private final ExecutorService consumers;
+
+        private Queue(String name, AbstractEventSubscriber<?> subscriber, int consumers) {
+            this.name = name;
+            this.routingKey = subscriber.getType();
+            this.subscriber = subscriber;
+            this.consumers = Executors.newFixedThreadPool(consumers,
+                    new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true).build());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.epages.microservice.handson.shared.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.util.StringUtils;
+
+/**
+ * Binds every {@link AbstractEventSubscriber} bean to an {@link InMemoryEventBus}, with queues named like those
+ * {@link EventSubscriberRegistrar} declares on RabbitMQ. Subscribers are bound once the context is started and
+ * unbound when it is stopped, as listener containers would start and stop consuming.
+ */
+public class InMemoryEventSubscriberRegistrar implements SmartLifecycle, BeanFactoryAware {
+
+    private final InMemoryEventBus eventBus;
+
+    private final String applicationName;
+
+    private final int consumers;
+
+    private final List<String> boundQueues = new ArrayList<>();
+
+    private ListableBeanFactory beanFactory;
+
+    public InMemoryEventSubscriberRegistrar(InMemoryEventBus eventBus, String applicationName, int consumers) {
+        this.eventBus = eventBus;
+        this.applicationName = applicationName;
+        this.consumers = consumers;
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        this.beanFactory = (ListableBeanFactory) beanFactory;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public synchronized void start() {
+        Map<String, AbstractEventSubscriber> subscribers = beanFactory.getBeansOfType(AbstractEventSubscriber.class);
+        subscribers.values().forEach(subscriber -> {
+            String queueName = StringUtils.hasText(applicationName)
+                    ? applicationName + "." + subscriber.getType() : new AnonymousQueue().getName();
+            eventBus.bind(queueName, subscriber, consumers);
+            boundQueues.add(queueName);
+        });
+    }
+
+    @Override
+    public synchronized void stop() {
+        boundQueues.forEach(eventBus::unbind);
+        boundQueues.clear();
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return !boundQueues.isEmpty();
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public int getPhase() {
+        // last to start and first to stop, like the listener containers
+        return Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,157 @@
+package com.epages.microservice.handson.shared.event;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies in microseconds over the last one to two windows, so that percentiles follow
+ * the current load instead of averaging over the uptime. Values below 16 are counted exactly, larger ones in eight
+ * buckets per power of two, so a percentile is at most 12.5 percent above the actual value.
+ */
+class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final int LINEAR_BUCKETS = 2 * SUB_BUCKETS;
+
+    private static final int BUCKETS = LINEAR_BUCKETS + (64 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+    private final long windowNanos;
+
+    private volatile Window current;
+
+    private volatile Window previous;
+
+    LatencyHistogram(long windowMillis) {
+        this.windowNanos = MILLISECONDS.toNanos(windowMillis);
+        final long now = System.nanoTime();
+        this.current = new Window(now);
+        this.previous = new Window(now - windowNanos);
+    }
+
+    void record(long micros) {
+        currentWindow().record(Math.max(micros, 0));
+    }
+
+    Snapshot snapshot() {
+        final Window window = currentWindow();
+        return new Snapshot(previous, window);
+    }
+
+    private Window currentWindow() {
+        final long now = System.nanoTime();
+        Window window = current;
+        if (now - window.startedAt >= windowNanos) {
+            synchronized (this) {
+                window = current;
+                if (now - window.startedAt >= windowNanos) {
+                    // a window that ended long ago does not count as the previous one
+                    previous = now - window.startedAt < 2 * windowNanos ? window : new Window(now - windowNanos);
+                    window = new Window(now);
+                    current = window;
+                }
+            }
+        }
+        return window;
+    }
+
+    static int bucket(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_BUCKETS + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return the largest value counted in the bucket
+     */
+    static long highestValue(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        final int exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+        final long subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+        final long lowest = (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    private static final class Window {
+
+        private final long startedAt;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+        private final AtomicLong max = new AtomicLong();
+
+        private Window(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        private void record(long value) {
+            counts.incrementAndGet(bucket(value));
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * The values of the previous and the current window, in milliseconds.
+     */
+    static final class Snapshot {
+
+        private final long[] counts = new long[BUCKETS];
+
+        private final long count;
+
+        private final long maxMicros;
+
+        private final long windowStartedAt;
+
+        private Snapshot(Window previous, Window current) {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = previous.counts.get(i) + current.counts.get(i);
+                total += counts[i];
+            }
+            this.count = total;
+            this.maxMicros = Math.max(previous.max.get(), current.max.get());
+            this.windowStartedAt = previous.startedAt;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        /**
+         * @return values per second since the previous window started
+         */
+        double getRate() {
+            final long elapsedNanos = System.nanoTime() - windowStartedAt;
+            return elapsedNanos <= 0 ? 0.0 : count * 1e9 / elapsedNanos;
+        }
+
+        double getPercentile(double percentile) {
+            if (count == 0) {
+                return 0.0;
+            }
+            final long rank = Math.max((long) Math.ceil(percentile / 100.0 * count), 1);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValue(i), maxMicros) / 1000.0;
+                }
+            }
+            return getMax();
+        }
+
+        double getMax() {
+            return maxMicros / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.epages.microservice.handson.shared.event;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import javax.persistence.Basic;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Records that an event was handled. Always inserted, never merged, so a second delivery of the same event
+ * fails on the primary key instead of silently updating the row.
+ */
+@Entity
+@Table(name = "PROCESSED_EVENT")
+public class ProcessedEvent implements Persistable<String>, Serializable {
+
+    private static final long serialVersionUID = 6418513376305413782L;
+
+    @Id
+    @Column(name = "EVENT_ID", length = 36, nullable = false)
+    private String eventId;
+
+    @Basic
+    @Column(name = "TYPE", length = 255, nullable = false)
+    private String type;
+
+    @Basic
+    @Column(name = "PROCESSED_AT", nullable = false)
+    private LocalDateTime processedAt;
+
+    protected ProcessedEvent() {
+    }
+
+    public ProcessedEvent(String eventId, String type) {
+        this.eventId = eventId;
+        this.type = type;
+        this.processedAt = LocalDateTime.now();
+    }
+
+    @Override
+    public String getId() {
+        return eventId;
+    }
+
+    @Override
+    @Transient
+    public boolean isNew() {
+        return true;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this).add("eventId", eventId).add("type", type).add("processedAt", processedAt).toString();
+    }
+}
@@ -0,0 +1,61 @@
+package com.epages.microservice.handson.shared.event;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+/**
+ * Deletes the markers of events that were processed longer ago than the retention, which must exceed the time
+ * the broker may still redeliver an event.
+ */
+public class ProcessedEventPruner implements InitializingBean, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProcessedEventPruner.class);
+
+    private final ProcessedEventRepository processedEventRepository;
+
+    private final Duration retention;
+
+    private final long intervalMillis;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "processed-event-pruner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ProcessedEventPruner(ProcessedEventRepository processedEventRepository, Duration retention,
+            long intervalMillis) {
+        this.processedEventRepository = processedEventRepository;
+        this.retention = retention;
+        this.intervalMillis = intervalMillis;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        timer.scheduleWithFixedDelay(this::prune, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public int prune() {
+        try {
+            final int deleted = processedEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention));
+            LOGGER.debug("Deleted {} processed event markers older than {}", deleted, retention);
+            return deleted;
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not delete processed event markers, trying again in {} ms", intervalMillis, e);
+            return 0;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,24 @@
+package com.epages.microservice.handson.shared.event;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+/**
+ * Sends every event synchronously on the calling thread.
+ */
+public class RabbitTemplateEventSender implements EventSender {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    public RabbitTemplateEventSender(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    @Override
+    public CompletableFuture<Void> send(String routingKey, Message message) {
+        rabbitTemplate.send(routingKey, message);
+        return CompletableFuture.completedFuture(null);
+    }
+}
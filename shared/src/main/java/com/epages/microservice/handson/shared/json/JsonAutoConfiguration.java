@@ -5,8 +5,11 @@ import static com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKN
 import static com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS;
 import static java.util.Locale.ENGLISH;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.geo.GeoModule;
@@ -14,20 +17,33 @@ import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 
 import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
 
 @Configuration
 public class JsonAutoConfiguration {
 
+    /**
+     * Compact output with generated property accessors by default, pretty printing is meant for development only.
+     * The money module is installed right away, so readers and writers that are built early know it as well.
+     */
     @Bean
-    public Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder(GeoModule geoModule) {
+    public Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder(GeoModule geoModule,
+                                                                   @Value("${rnd.json.indent-output:false}") boolean indentOutput,
+                                                                   @Value("${rnd.json.afterburner:true}") boolean afterburner) {
+        List<Module> modules = new ArrayList<>();
+        modules.add(geoModule);
+        modules.add(new MoneyModule());
+        if (afterburner) {
+            modules.add(new AfterburnerModule());
+        }
         return Jackson2ObjectMapperBuilder //
                 .json() //
                 .locale(ENGLISH) //
                 .timeZone("UTC") //
-                .indentOutput(true) //
+                .indentOutput(indentOutput) //
                 .serializationInclusion(NON_NULL) //
                 .featuresToDisable(WRITE_DATES_AS_TIMESTAMPS, FAIL_ON_UNKNOWN_PROPERTIES) //
-                .modulesToInstall(geoModule) //
+                .modulesToInstall(modules.toArray(new Module[modules.size()])) //
                 ;
     }
 
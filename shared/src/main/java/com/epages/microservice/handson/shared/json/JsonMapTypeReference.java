@@ -1,8 +0,0 @@
-package com.epages.microservice.handson.shared.json;
-
-import com.fasterxml.jackson.core.type.TypeReference;
-
-import java.util.Map;
-
-public class JsonMapTypeReference extends TypeReference<Map<String, Object>> {
-}
@@ -2,13 +2,11 @@ package com.epages.microservice.handson.shared.json;
 
 import java.io.IOException;
 import java.io.Serializable;
-import java.util.Locale;
-
-import javax.money.format.MonetaryAmountFormat;
-import javax.money.format.MonetaryFormats;
 
 import org.javamoney.moneta.Money;
 
+import com.epages.microservice.handson.shared.money.MoneyCodec;
+
 import com.fasterxml.jackson.core.JsonGenerationException;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.DeserializationContext;
@@ -21,8 +19,6 @@ public class MoneyModule extends SimpleModule {
 
     private static final long serialVersionUID = -4030029940461575009L;
 
-    private static final MonetaryAmountFormat FORMAT = MonetaryFormats.getAmountFormat(Locale.ROOT);
-
     public MoneyModule() {
         super(MoneyModule.class.getSimpleName());
         addSerializer(Money.class, new MoneySerializer());
@@ -35,7 +31,7 @@ public class MoneyModule extends SimpleModule {
 
         @Override
         public void serialize(Object value, JsonGenerator jgen, SerializerProvider provider) throws IOException, JsonGenerationException {
-            jgen.writeString(FORMAT.format((Money) value));
+            jgen.writeString(MoneyCodec.format((Money) value));
         }
     }
 
@@ -55,7 +51,7 @@ public class MoneyModule extends SimpleModule {
 
         @Override
         public Object createFromString(DeserializationContext ctxt, String value) throws IOException {
-            return Money.parse(value, FORMAT);
+            return MoneyCodec.parse(value);
         }
     }
 }
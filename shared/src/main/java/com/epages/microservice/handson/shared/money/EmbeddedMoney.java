@@ -0,0 +1,95 @@
+package com.epages.microservice.handson.shared.money;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.math.RoundingMode.HALF_EVEN;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryAmount;
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+
+import org.javamoney.moneta.Money;
+
+import com.google.common.base.Objects;
+
+/**
+ * Numeric column representation of a {@link MonetaryAmount}: the amount in minor units of its currency (cents for
+ * {@code EUR}) and the currency code. Unlike the formatted text this can be summed and compared in SQL.
+ * Amounts are rounded half even to the fraction digits of their currency, as the formatted text was.
+ * Entities override the column names, e.g. {@code PRICE_AMOUNT} and {@code PRICE_CURRENCY}.
+ */
+@Embeddable
+public class EmbeddedMoney implements Serializable {
+
+    private static final long serialVersionUID = -2409134877410316421L;
+
+    @Column(name = "AMOUNT_MINOR")
+    private Long amount;
+
+    @Column(name = "CURRENCY", length = 3)
+    private String currency;
+
+    protected EmbeddedMoney() {
+    }
+
+    private EmbeddedMoney(Long amount, String currency) {
+        this.amount = amount;
+        this.currency = currency;
+    }
+
+    public static EmbeddedMoney of(MonetaryAmount monetaryAmount) {
+        if (monetaryAmount == null) {
+            return null;
+        }
+        final CurrencyUnit currencyUnit = monetaryAmount.getCurrency();
+        final BigDecimal minorUnits = monetaryAmount.getNumber().numberValue(BigDecimal.class)
+                .setScale(fractionDigits(currencyUnit), HALF_EVEN);
+        return new EmbeddedMoney(minorUnits.unscaledValue().longValueExact(), currencyUnit.getCurrencyCode());
+    }
+
+    public Money toMonetaryAmount() {
+        final CurrencyUnit currencyUnit = MoneyCodec.currency(currency);
+        return Money.of(BigDecimal.valueOf(amount, fractionDigits(currencyUnit)), currencyUnit);
+    }
+
+    /**
+     * @return the amount in minor units of the currency
+     */
+    public Long getAmount() {
+        return amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    private static int fractionDigits(CurrencyUnit currencyUnit) {
+        // currencies without minor units, like gold, report -1
+        return Math.max(currencyUnit.getDefaultFractionDigits(), 0);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(amount, currency);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        EmbeddedMoney that = (EmbeddedMoney) o;
+        return Objects.equal(amount, that.amount) && Objects.equal(currency, that.currency);
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this).add("amount", amount).add("currency", currency).toString();
+    }
+}
@@ -0,0 +1,173 @@
+package com.epages.microservice.handson.shared.money;
+
+import static java.math.RoundingMode.HALF_EVEN;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.money.CurrencyUnit;
+import javax.money.Monetary;
+import javax.money.MonetaryAmount;
+import javax.money.format.MonetaryAmountFormat;
+import javax.money.format.MonetaryFormats;
+
+import org.javamoney.moneta.Money;
+
+/**
+ * Formats and parses amounts like {@code "EUR 1,234.50"} without the JavaMoney format machinery, producing exactly
+ * what {@code MonetaryFormats.getAmountFormat(Locale.ROOT)} produces: two fraction digits rounded half even, grouped
+ * integer digits and {@code "EUR- 3.50"} for negative amounts.
+ * Anything but the plain form is parsed by the JavaMoney format, so lenient input is read as before.
+ */
+public final class MoneyCodec {
+
+    private static final MonetaryAmountFormat FORMAT = MonetaryFormats.getAmountFormat(Locale.ROOT);
+
+    private static final int LETTERS = 26;
+
+    // indexed by the three letters of the currency code
+    private static final AtomicReferenceArray<CurrencyUnit> CURRENCIES = new AtomicReferenceArray<>(LETTERS * LETTERS * LETTERS);
+
+    // 18 digits always fit into a long
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private MoneyCodec() {
+    }
+
+    public static String format(MonetaryAmount amount) {
+        final BigDecimal number = amount.getNumber().numberValue(BigDecimal.class);
+        final String currencyCode = amount.getCurrency().getCurrencyCode();
+        // the sign is taken before rounding, -0.001 is formatted as "- 0.00"
+        final String separator = number.signum() < 0 ? "- " : " ";
+        final BigDecimal rounded = number.abs().setScale(2, HALF_EVEN);
+        if (rounded.precision() > MAX_LONG_DIGITS) {
+            return appendPlain(new StringBuilder(currencyCode).append(separator), rounded.toPlainString()).toString();
+        }
+        // filled from the right: fraction, grouped integer digits, sign and currency
+        final char[] text = new char[currencyCode.length() + 2 + 24];
+        int position = text.length;
+        long minorUnits = rounded.movePointRight(2).longValue();
+        text[--position] = (char) ('0' + minorUnits % 10);
+        minorUnits /= 10;
+        text[--position] = (char) ('0' + minorUnits % 10);
+        minorUnits /= 10;
+        text[--position] = '.';
+        int digits = 0;
+        do {
+            if (digits > 0 && digits % 3 == 0) {
+                text[--position] = ',';
+            }
+            text[--position] = (char) ('0' + minorUnits % 10);
+            minorUnits /= 10;
+            digits++;
+        } while (minorUnits > 0);
+        position -= separator.length();
+        separator.getChars(0, separator.length(), text, position);
+        position -= currencyCode.length();
+        currencyCode.getChars(0, currencyCode.length(), text, position);
+        return new String(text, position, text.length - position);
+    }
+
+    public static Money parse(CharSequence text) {
+        final Money money = parsePlain(text);
+        return money != null ? money : Money.parse(text, FORMAT);
+    }
+
+    private static StringBuilder appendPlain(StringBuilder text, String plain) {
+        final int point = plain.indexOf('.');
+        for (int i = 0; i < point; i++) {
+            if (i > 0 && (point - i) % 3 == 0) {
+                text.append(',');
+            }
+            text.append(plain.charAt(i));
+        }
+        return text.append(plain, point, plain.length());
+    }
+
+    /**
+     * Reads {@code "EUR 1,234.50"}, {@code "EUR -3.50"} and {@code "EUR- 3.50"}.
+     *
+     * @return null if the text is not of that form
+     */
+    private static Money parsePlain(CharSequence text) {
+        int end = text.length();
+        int i = 0;
+        while (i < end && text.charAt(i) == ' ') {
+            i++;
+        }
+        while (end > i && text.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (end - i < 5) {
+            return null;
+        }
+        final CurrencyUnit currency = currency(text.charAt(i), text.charAt(i + 1), text.charAt(i + 2));
+        i += 3;
+        boolean negative = false;
+        if (text.charAt(i) == '-') {
+            negative = true;
+            i++;
+        }
+        if (i >= end || text.charAt(i) != ' ') {
+            return null;
+        }
+        while (i < end && text.charAt(i) == ' ') {
+            i++;
+        }
+        if (!negative && i < end && text.charAt(i) == '-') {
+            negative = true;
+            i++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < end; i++) {
+            final char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                unscaled = unscaled * 10 + (c - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (c == ',' && scale < 0) {
+                continue;
+            } else if (c == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return null;
+            }
+        }
+        if (currency == null || digits == 0 || digits > MAX_LONG_DIGITS) {
+            return null;
+        }
+        return Money.of(BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0)), currency);
+    }
+
+    static CurrencyUnit currency(String currencyCode) {
+        final CurrencyUnit currency = currencyCode.length() == 3
+                ? currency(currencyCode.charAt(0), currencyCode.charAt(1), currencyCode.charAt(2)) : null;
+        return currency != null ? currency : Monetary.getCurrency(currencyCode);
+    }
+
+    private static CurrencyUnit currency(char first, char second, char third) {
+        if (!isUpperCaseLetter(first) || !isUpperCaseLetter(second) || !isUpperCaseLetter(third)) {
+            return null;
+        }
+        final int index = ((first - 'A') * LETTERS + (second - 'A')) * LETTERS + (third - 'A');
+        CurrencyUnit currency = CURRENCIES.get(index);
+        if (currency == null) {
+            final String currencyCode = new String(new char[] {first, second, third});
+            if (!Monetary.isCurrencyAvailable(currencyCode)) {
+                return null;
+            }
+            currency = Monetary.getCurrency(currencyCode);
+            CURRENCIES.set(index, currency);
+        }
+        return currency;
+    }
+
+    private static boolean isUpperCaseLetter(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+}
@@ -0,0 +1,75 @@
+package com.epages.microservice.handson.shared.tracing;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+import java.util.List;
+
+/**
+ * Latency percentiles of the spans of one hop, in milliseconds.
+ */
+public class HopLatency {
+
+    private final String service;
+
+    private final String name;
+
+    private final int count;
+
+    private final double p50;
+
+    private final double p95;
+
+    private final double p99;
+
+    private final double max;
+
+    HopLatency(List<Span> spans) {
+        final long[] micros = spans.stream().mapToLong(Span::getDurationMicros).sorted().toArray();
+        this.service = spans.get(0).getService();
+        this.name = spans.get(0).getName();
+        this.count = micros.length;
+        this.p50 = percentile(micros, 50);
+        this.p95 = percentile(micros, 95);
+        this.p99 = percentile(micros, 99);
+        this.max = micros[micros.length - 1] / 1000.0;
+    }
+
+    private static double percentile(long[] sorted, int percentile) {
+        final int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1] / 1000.0;
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getP50() {
+        return p50;
+    }
+
+    public double getP95() {
+        return p95;
+    }
+
+    public double getP99() {
+        return p99;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this).add("service", service).add("name", name).add("count", count).add("p50", p50)
+                .add("p95", p95).add("p99", p99).add("max", max).toString();
+    }
+}
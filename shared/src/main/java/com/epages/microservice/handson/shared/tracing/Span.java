@@ -0,0 +1,111 @@
+package com.epages.microservice.handson.shared.tracing;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * A timed step of a trace, e.g. handling a request or consuming an event. A span is current on its thread from
+ * its start until it is closed, spans started meanwhile are its children.
+ */
+public class Span implements AutoCloseable {
+
+    private final String traceId;
+
+    private final String spanId;
+
+    private final String parentSpanId;
+
+    private final String service;
+
+    private volatile String name;
+
+    private final long startedAt;
+
+    private final long startNanos;
+
+    private volatile long durationMicros = -1;
+
+    private final Tracer tracer;
+
+    private final Span previous;
+
+    Span(Tracer tracer, Span previous, String traceId, String spanId, String parentSpanId, String service, String name) {
+        this.tracer = tracer;
+        this.previous = previous;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.service = service;
+        this.name = name;
+        this.startedAt = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Renames the span before it is closed, e.g. once the request was mapped to a handler.
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return epoch milliseconds
+     */
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * @return -1 while the span is open
+     */
+    public double getDurationMillis() {
+        return durationMicros < 0 ? -1 : durationMicros / 1000.0;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    long getDurationMicros() {
+        return durationMicros;
+    }
+
+    Span getPrevious() {
+        return previous;
+    }
+
+    @Override
+    public void close() {
+        if (durationMicros < 0) {
+            durationMicros = NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+            tracer.finish(this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this).add("traceId", traceId).add("spanId", spanId).add("parentSpanId", parentSpanId)
+                .add("service", service).add("name", name).add("startedAt", startedAt)
+                .add("durationMillis", getDurationMillis()).toString();
+    }
+}
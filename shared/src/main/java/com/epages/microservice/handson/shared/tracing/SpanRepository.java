@@ -0,0 +1,66 @@
+package com.epages.microservice.handson.shared.tracing;
+
+import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the most recent finished spans in memory. Spans are logged at DEBUG as they finish, so the timelines of
+ * all services can be put together from their logs as well.
+ */
+public class SpanRepository {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpanRepository.class);
+
+    private final int capacity;
+
+    private final LinkedList<Span> spans = new LinkedList<>();
+
+    public SpanRepository(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void add(Span span) {
+        LOGGER.debug("{}", span);
+        synchronized (spans) {
+            while (spans.size() >= capacity) {
+                spans.removeFirst();
+            }
+            spans.add(span);
+        }
+    }
+
+    public List<Span> findAll() {
+        synchronized (spans) {
+            return new ArrayList<>(spans);
+        }
+    }
+
+    /**
+     * @return the spans of the trace in the order they started
+     */
+    public List<Span> findByTraceId(String traceId) {
+        return findAll().stream()
+                .filter(span -> span.getTraceId().equals(traceId))
+                .sorted(comparing(Span::getStartedAt).thenComparing(Span::getStartNanos))
+                .collect(toList());
+    }
+
+    /**
+     * @return the latency of every hop, i.e. the spans of the same service and name, ordered by service and name
+     */
+    public List<HopLatency> getHopLatencies() {
+        final Map<String, List<Span>> hops = new TreeMap<>(findAll().stream()
+                .collect(groupingBy(span -> span.getService() + " " + span.getName())));
+        return hops.values().stream().map(HopLatency::new).collect(toList());
+    }
+}
@@ -0,0 +1,27 @@
+package com.epages.microservice.handson.shared.tracing;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.AbstractEndpoint;
+
+/**
+ * Exposes the latency of every hop of this service on {@code /spans}.
+ */
+public class SpansEndpoint extends AbstractEndpoint<List<HopLatency>> {
+
+    private final SpanRepository spanRepository;
+
+    public SpansEndpoint(SpanRepository spanRepository) {
+        super("spans", false);
+        this.spanRepository = spanRepository;
+    }
+
+    @Override
+    public List<HopLatency> invoke() {
+        return spanRepository.getHopLatencies();
+    }
+
+    public List<Span> findByTraceId(String traceId) {
+        return spanRepository.findByTraceId(traceId);
+    }
+}
@@ -0,0 +1,28 @@
+package com.epages.microservice.handson.shared.tracing;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.mvc.EndpointMvcAdapter;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Adds the timeline of a single trace on {@code /spans/{traceId}}.
+ */
+public class SpansMvcEndpoint extends EndpointMvcAdapter {
+
+    private final SpansEndpoint delegate;
+
+    public SpansMvcEndpoint(SpansEndpoint delegate) {
+        super(delegate);
+        this.delegate = delegate;
+    }
+
+    @RequestMapping(value = "/{traceId}", method = RequestMethod.GET)
+    @ResponseBody
+    public List<Span> trace(@PathVariable String traceId) {
+        return delegate.findByTraceId(traceId);
+    }
+}
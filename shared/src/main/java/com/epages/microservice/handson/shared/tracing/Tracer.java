@@ -0,0 +1,109 @@
+package com.epages.microservice.handson.shared.tracing;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Starts spans and keeps track of the current span of a thread. A trace is identified by its trace id, which travels
+ * with requests and events in the {@link #TRACE_ID_HEADER} header together with the span id of the sender in the
+ * {@link #SPAN_ID_HEADER} header. Finished spans are stored in the {@link SpanRepository}.
+ */
+public class Tracer {
+
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    public static final String SPAN_ID_HEADER = "X-Span-Id";
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private final String service;
+
+    private final SpanRepository spanRepository;
+
+    public Tracer(String service, SpanRepository spanRepository) {
+        this.service = service;
+        this.spanRepository = spanRepository;
+    }
+
+    /**
+     * @return the span of the current thread, null if there is none
+     */
+    public static Span currentSpan() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Starts a child of the current span, or a new trace if there is no current span.
+     */
+    public Span start(String name) {
+        final Span parent = CURRENT.get();
+        return parent == null ? start(name, null, null) : start(name, parent.getTraceId(), parent.getSpanId());
+    }
+
+    /**
+     * Continues a trace that was started elsewhere, e.g. by the sender of a request.
+     *
+     * @param traceId the trace to continue, a new trace is started if it is null
+     */
+    public Span start(String name, String traceId, String parentSpanId) {
+        final Span span = traceId == null
+                ? new Span(this, CURRENT.get(), newId(), newId(), null, service, name)
+                : new Span(this, CURRENT.get(), traceId, newId(), parentSpanId, service, name);
+        CURRENT.set(span);
+        return span;
+    }
+
+    void finish(Span span) {
+        if (CURRENT.get() == span) {
+            restore(span.getPrevious());
+        }
+        spanRepository.add(span);
+    }
+
+    /**
+     * Runs the task with the span that is current now, so that spans it starts on another thread belong to the trace.
+     */
+    public static Runnable propagate(Runnable task) {
+        final Span span = CURRENT.get();
+        if (span == null) {
+            return task;
+        }
+        return () -> {
+            final Span previous = CURRENT.get();
+            CURRENT.set(span);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        final Span span = CURRENT.get();
+        if (span == null) {
+            return task;
+        }
+        return () -> {
+            final Span previous = CURRENT.get();
+            CURRENT.set(span);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private static void restore(Span previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    private static String newId() {
+        return String.format("%016x", ThreadLocalRandom.current().nextLong());
+    }
+}
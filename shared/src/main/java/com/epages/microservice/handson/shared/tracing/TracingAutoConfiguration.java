@@ -0,0 +1,45 @@
+package com.epages.microservice.handson.shared.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.embedded.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class TracingAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SpanRepository spanRepository(@Value("${rnd.tracing.capacity:10000}") Integer capacity) {
+        return new SpanRepository(capacity);
+    }
+
+    @Bean
+    public Tracer tracer(@Value("${spring.application.name:}") String service, SpanRepository spanRepository) {
+        return new Tracer(service, spanRepository);
+    }
+
+    @Bean
+    public FilterRegistrationBean tracingFilter(Tracer tracer) {
+        FilterRegistrationBean registration = new FilterRegistrationBean(new TracingFilter(tracer));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public TracingClientHttpRequestInterceptor tracingClientHttpRequestInterceptor(Tracer tracer) {
+        return new TracingClientHttpRequestInterceptor(tracer);
+    }
+
+    @Bean
+    public SpansEndpoint spansEndpoint(SpanRepository spanRepository) {
+        return new SpansEndpoint(spanRepository);
+    }
+
+    @Bean
+    public SpansMvcEndpoint spansMvcEndpoint(SpansEndpoint spansEndpoint) {
+        return new SpansMvcEndpoint(spansEndpoint);
+    }
+}
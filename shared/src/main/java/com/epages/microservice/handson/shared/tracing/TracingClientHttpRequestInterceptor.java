@@ -0,0 +1,42 @@
+package com.epages.microservice.handson.shared.tracing;
+
+import static com.epages.microservice.handson.shared.tracing.Tracer.SPAN_ID_HEADER;
+import static com.epages.microservice.handson.shared.tracing.Tracer.TRACE_ID_HEADER;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Calls other services in a child span of the current span and passes the trace on in the request headers.
+ * Requests outside of a trace, e.g. bulk reads on behalf of several traces, are sent as they are.
+ */
+public class TracingClientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+
+    // ids in the path would make every resource a hop of its own
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final Tracer tracer;
+
+    public TracingClientHttpRequestInterceptor(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (Tracer.currentSpan() == null) {
+            return execution.execute(request, body);
+        }
+        final String path = ID_SEGMENT.matcher(request.getURI().getPath()).replaceAll("/{id}");
+        try (Span span = tracer.start("call " + request.getMethod() + " " + request.getURI().getHost() + path)) {
+            request.getHeaders().set(TRACE_ID_HEADER, span.getTraceId());
+            request.getHeaders().set(SPAN_ID_HEADER, span.getSpanId());
+            return execution.execute(request, body);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.epages.microservice.handson.shared.tracing;
+
+import static com.epages.microservice.handson.shared.tracing.Tracer.SPAN_ID_HEADER;
+import static com.epages.microservice.handson.shared.tracing.Tracer.TRACE_ID_HEADER;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Handles every request in a span that continues the caller's trace, or starts a new one. The trace id is
+ * returned in the response, e.g. to look up the timeline of a created order.
+ */
+public class TracingFilter extends OncePerRequestFilter {
+
+    private final Tracer tracer;
+
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (Span span = tracer.start(request.getMethod() + " " + request.getRequestURI(),
+                request.getHeader(TRACE_ID_HEADER), request.getHeader(SPAN_ID_HEADER))) {
+            response.setHeader(TRACE_ID_HEADER, span.getTraceId());
+            filterChain.doFilter(request, response);
+            // the path pattern names the hop, not the resource
+            final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                span.setName(request.getMethod() + " " + pattern);
+            }
+        }
+    }
+}
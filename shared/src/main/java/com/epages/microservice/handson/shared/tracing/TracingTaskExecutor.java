@@ -0,0 +1,82 @@
+package com.epages.microservice.handson.shared.tracing;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.concurrent.ListenableFuture;
+
+/**
+ * Runs every task in a span that is a child of the span that submitted it, so {@code @Async} work stays in its
+ * trace.
+ */
+public class TracingTaskExecutor extends ThreadPoolTaskExecutor {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Tracer tracer;
+
+    public TracingTaskExecutor(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        super.execute(traced(task));
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        return super.submit(traced(task));
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        return super.submit(traced(task));
+    }
+
+    @Override
+    public ListenableFuture<?> submitListenable(Runnable task) {
+        return super.submitListenable(traced(task));
+    }
+
+    @Override
+    public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
+        return super.submitListenable(traced(task));
+    }
+
+    private Runnable traced(Runnable task) {
+        if (Tracer.currentSpan() == null) {
+            return task;
+        }
+        final String name = spanName();
+        return Tracer.propagate(() -> {
+            final Span span = tracer.start(name);
+            try {
+                task.run();
+            } finally {
+                span.close();
+            }
+        });
+    }
+
+    private <T> Callable<T> traced(Callable<T> task) {
+        if (Tracer.currentSpan() == null) {
+            return task;
+        }
+        final String name = spanName();
+        return Tracer.propagate(() -> {
+            final Span span = tracer.start(name);
+            try {
+                return task.call();
+            } finally {
+                span.close();
+            }
+        });
+    }
+
+    private String spanName() {
+        final String prefix = getThreadNamePrefix();
+        return "async " + (prefix.endsWith("-") ? prefix.substring(0, prefix.length() - 1) : prefix);
+    }
+}
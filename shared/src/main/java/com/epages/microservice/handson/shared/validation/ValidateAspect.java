@@ -2,8 +2,14 @@ package com.epages.microservice.handson.shared.validation;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.IntStream;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
@@ -16,8 +22,14 @@ import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 
+/**
+ * Validates the {@link Valid} parameters and the return value of methods annotated with {@link Valid}.
+ * What to validate is resolved once per method and target class. Values are only handed to the validator if their
+ * class declares constraints, so methods without constrained parameters or return types just proceed.
+ */
 @Aspect
 public class ValidateAspect {
 
@@ -25,6 +37,11 @@ public class ValidateAspect {
 
     private final Validator validator;
 
+    // the implementation method of the target class declares the @Valid parameters
+    private final ConcurrentMap<Method, ConcurrentMap<Class<?>, ValidationPlan>> plans = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Class<?>, Boolean> constrainedTypes = new ConcurrentHashMap<>();
+
     @Autowired
     public ValidateAspect(Validator validator) {
         log.info("ValidateAspect initialization...");
@@ -36,51 +53,94 @@ public class ValidateAspect {
 
     @Around("methodWithValidAnnotation()")
     public Object validate(ProceedingJoinPoint jp) throws Throwable {
+        final ValidationPlan plan = getPlan(((MethodSignature) jp.getSignature()).getMethod(), jp.getTarget().getClass());
+        if (plan.validatedParameters.length > 0) {
+            validateParameters(plan, jp.getArgs());
+        }
 
-        // Get the target method
-        Method interfaceMethod = ((MethodSignature) jp.getSignature()).getMethod();
-        Method implementationMethod = jp.getTarget().getClass().getMethod(interfaceMethod.getName(),
-                interfaceMethod.getParameterTypes());
-
-        log.info("Validating call to " + implementationMethod.toString());
-
-        // Get the annotated parameters and validate those with the @Valid
-        // annotation
-        Annotation[][] annotationParameters = implementationMethod.getParameterAnnotations();
+        final Object returnValue = jp.proceed();
 
-        // ConstraintViolations to return
-        Set<ConstraintViolation<?>> violations = new HashSet<ConstraintViolation<?>>();
+        if (plan.validateReturnValue) {
+            final Set<ConstraintViolation<Object>> violations = validateValue(returnValue);
+            if (!violations.isEmpty()) {
+                throw new ConstraintViolationException(new HashSet<>(violations));
+            }
+        }
+        return returnValue;
+    }
 
-        for (int i = 0; i < annotationParameters.length; i++) {
-            Annotation[] annotations = annotationParameters[i];
-            for (Annotation annotation : annotations) {
-                if (annotation.annotationType().equals(Valid.class)) {
-                    Object arg = jp.getArgs()[i];
-                    violations.addAll(validator.validate(arg));
+    private void validateParameters(ValidationPlan plan, Object[] args) {
+        Set<ConstraintViolation<?>> violations = null;
+        for (int index : plan.validatedParameters) {
+            final Set<ConstraintViolation<Object>> parameterViolations = validateValue(args[index]);
+            if (!parameterViolations.isEmpty()) {
+                if (violations == null) {
+                    violations = new HashSet<>();
                 }
+                violations.addAll(parameterViolations);
             }
         }
-
-        // Throw an exception if ConstraintViolations are found
-        if (!violations.isEmpty()) {
+        if (violations != null) {
             throw new ConstraintViolationException(violations);
         }
+    }
 
-        // execute method
-        Object returnValue = jp.proceed();
+    private Set<ConstraintViolation<Object>> validateValue(Object value) {
+        if (value == null || !isConstrained(value.getClass())) {
+            return Collections.emptySet();
+        }
+        return validator.validate(value);
+    }
 
-        // can only validate objects, not arrays or primitives..
-        if(! interfaceMethod.getReturnType().isPrimitive() && !interfaceMethod.getReturnType().isArray()) {
-            // validate response
-            violations.addAll(validator.validate(returnValue));
+    private boolean isConstrained(Class<?> type) {
+        Boolean constrained = constrainedTypes.get(type);
+        if (constrained == null) {
+            constrained = validator.getConstraintsForClass(type).isBeanConstrained();
+            constrainedTypes.putIfAbsent(type, constrained);
+        }
+        return constrained;
+    }
 
-            // Throw an exception if ConstraintViolations are found
-            if (!violations.isEmpty()) {
-                throw new ConstraintViolationException(violations);
-            }
+    private ValidationPlan getPlan(Method method, Class<?> targetClass) {
+        ConcurrentMap<Class<?>, ValidationPlan> plansByTarget = plans.get(method);
+        if (plansByTarget == null) {
+            plans.putIfAbsent(method, new ConcurrentHashMap<>());
+            plansByTarget = plans.get(method);
+        }
+        ValidationPlan plan = plansByTarget.get(targetClass);
+        if (plan == null) {
+            plan = createPlan(method, targetClass);
+            plansByTarget.putIfAbsent(targetClass, plan);
         }
+        return plan;
+    }
 
-        return returnValue;
+    private ValidationPlan createPlan(Method method, Class<?> targetClass) {
+        final Method implementationMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+        final Annotation[][] parameterAnnotations = implementationMethod.getParameterAnnotations();
+        final int[] validatedParameters = IntStream.range(0, parameterAnnotations.length)
+                .filter(i -> Arrays.stream(parameterAnnotations[i]).anyMatch(a -> a.annotationType().equals(Valid.class)))
+                .toArray();
+
+        // can only validate objects, not arrays or primitives, and subclasses of final types cannot add constraints
+        final Class<?> returnType = method.getReturnType();
+        final boolean validateReturnValue = !returnType.isPrimitive() && !returnType.isArray()
+                && !(Modifier.isFinal(returnType.getModifiers()) && !isConstrained(returnType));
+
+        log.debug("Validating calls to {}: parameters {}, return value {}", implementationMethod,
+                Arrays.toString(validatedParameters), validateReturnValue);
+        return new ValidationPlan(validatedParameters, validateReturnValue);
     }
 
-}
\ No newline at end of file
+    private static final class ValidationPlan {
+
+        private final int[] validatedParameters;
+
+        private final boolean validateReturnValue;
+
+        private ValidationPlan(int[] validatedParameters, boolean validateReturnValue) {
+            this.validatedParameters = validatedParameters;
+            this.validateReturnValue = validateReturnValue;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.epages.microservice.handson.shared.web;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Coalesces the keys that are requested concurrently within a short window into one call of a bulk loader.
+ * A batch is loaded as soon as it is full or its window has passed. Keys the bulk loader does not return complete
+ * with {@code null}, a failing bulk load fails all futures of its batch, and so does a loader that was destroyed.
+ */
+public class BatchingLoader<K, V> implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingLoader.class);
+
+    private final Function<Collection<K>, Map<K, V>> bulkLoader;
+
+    private final int maxBatchSize;
+
+    private final long windowMillis;
+
+    private final ScheduledExecutorService executor;
+
+    private Batch current = new Batch();
+
+    public BatchingLoader(String name, Function<Collection<K>, Map<K, V>> bulkLoader, int maxBatchSize,
+                          long windowMillis, int threads) {
+        this.bulkLoader = bulkLoader;
+        this.maxBatchSize = maxBatchSize;
+        this.windowMillis = windowMillis;
+        this.executor = new ScheduledThreadPoolExecutor(threads,
+                new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true).build());
+    }
+
+    public CompletableFuture<V> load(K key) {
+        final Batch batch;
+        final CompletableFuture<V> future;
+        synchronized (this) {
+            batch = current;
+            CompletableFuture<V> existing = batch.futures.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            future = new CompletableFuture<>();
+            batch.futures.put(key, future);
+            if (batch.futures.size() == 1) {
+                try {
+                    executor.schedule(() -> flush(batch), windowMillis, MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    fail(batch, e);
+                    return future;
+                }
+            }
+            if (batch.futures.size() < maxBatchSize) {
+                return future;
+            }
+            current = new Batch();
+        }
+        try {
+            executor.execute(() -> flush(batch));
+        } catch (RejectedExecutionException e) {
+            fail(batch, e);
+        }
+        return future;
+    }
+
+    private void flush(Batch batch) {
+        synchronized (this) {
+            if (batch.claimed) {
+                // a full batch is loaded right away, its window may still pass later on
+                return;
+            }
+            batch.claimed = true;
+            if (batch == current) {
+                current = new Batch();
+            }
+        }
+        try {
+            final Map<K, V> loaded = bulkLoader.apply(batch.futures.keySet());
+            batch.futures.forEach((key, future) -> future.complete(loaded.get(key)));
+        } catch (Throwable e) {
+            // no future of the batch may be left incomplete, its callers would wait forever
+            LOGGER.warn("Bulk load of {} keys failed", batch.futures.size(), e);
+            batch.futures.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private void fail(Batch batch, RejectedExecutionException e) {
+        synchronized (this) {
+            if (batch.claimed) {
+                return;
+            }
+            batch.claimed = true;
+            if (batch == current) {
+                current = new Batch();
+            }
+        }
+        batch.futures.values().forEach(future -> future.completeExceptionally(e));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private final class Batch {
+
+        private final Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+
+        private boolean claimed;
+    }
+}
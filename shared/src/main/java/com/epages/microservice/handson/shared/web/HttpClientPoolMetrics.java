@@ -0,0 +1,32 @@
+package com.epages.microservice.handson.shared.web;
+
+import java.util.Collection;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Exposes the state of the RestTemplate's connection pool.
+ */
+public class HttpClientPoolMetrics implements PublicMetrics {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    public HttpClientPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        final PoolStats stats = connectionManager.getTotalStats();
+        return ImmutableList.of(
+                new Metric<>("http.client.pool.leased", stats.getLeased()),
+                new Metric<>("http.client.pool.pending", stats.getPending()),
+                new Metric<>("http.client.pool.available", stats.getAvailable()),
+                new Metric<>("http.client.pool.max", stats.getMax()));
+    }
+}
@@ -1,16 +1,25 @@
 package com.epages.microservice.handson.shared.web;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.Collections;
 import java.util.List;
 
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 
+import com.epages.microservice.handson.shared.tracing.TracingClientHttpRequestInterceptor;
+
 @Configuration
 public class WebAutoConfiguration extends WebMvcConfigurerAdapter {
 
@@ -27,13 +36,48 @@ public class WebAutoConfiguration extends WebMvcConfigurerAdapter {
         return new DefaultErrorHandler();
     }
 
+    @Bean(destroyMethod = "shutdown")
+    public PoolingHttpClientConnectionManager httpClientConnectionManager(
+            @Value("${rnd.http.client.max-total:100}") Integer maxTotal,
+            @Value("${rnd.http.client.max-per-route:20}") Integer maxPerRoute,
+            @Value("${rnd.http.client.connection-ttl-millis:60000}") Long connectionTtlMillis) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(connectionTtlMillis, MILLISECONDS);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        return connectionManager;
+    }
+
+    @Bean
+    public HttpClientPoolMetrics httpClientPoolMetrics(PoolingHttpClientConnectionManager httpClientConnectionManager) {
+        return new HttpClientPoolMetrics(httpClientConnectionManager);
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager httpClientConnectionManager,
+            @Value("${rnd.http.client.connect-timeout-millis:5000}") Integer connectTimeoutMillis,
+            @Value("${rnd.http.client.read-timeout-millis:5000}") Integer readTimeoutMillis,
+            @Value("${rnd.http.client.connection-request-timeout-millis:2000}") Integer connectionRequestTimeoutMillis,
+            @Value("${rnd.http.client.idle-eviction-millis:30000}") long idleEvictionMillis) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMillis)
+                .setSocketTimeout(readTimeoutMillis)
+                // how long to wait for a pooled connection when all are leased
+                .setConnectionRequestTimeout(connectionRequestTimeoutMillis)
+                .build();
+        return HttpClientBuilder.create()
+                .setConnectionManager(httpClientConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(idleEvictionMillis, MILLISECONDS)
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate(List<HttpMessageConverter<?>> messageConverters) {
-        SimpleClientHttpRequestFactory httpRequestFactory = new SimpleClientHttpRequestFactory();
-        httpRequestFactory.setConnectTimeout(5000);
-        httpRequestFactory.setReadTimeout(5000);
-        RestTemplate restTemplate = new RestTemplate(httpRequestFactory);
+    public RestTemplate restTemplate(List<HttpMessageConverter<?>> messageConverters, CloseableHttpClient httpClient,
+            TracingClientHttpRequestInterceptor tracingClientHttpRequestInterceptor) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
         restTemplate.setMessageConverters(messageConverters);
+        restTemplate.setInterceptors(Collections.singletonList(tracingClientHttpRequestInterceptor));
         return restTemplate;
     }
 }
@@ -0,0 +1,152 @@
+package com.epages.microservice.handson.shared.event;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+
+public class AbstractBatchEventSubscriberTest {
+
+    private final List<List<TestPayload>> batches = new ArrayList<>();
+
+    private String failingName;
+
+    private Channel channel;
+
+    private TestBatchEventSubscriber subscriber;
+
+    public static class TestPayload {
+        public String name;
+    }
+
+    private class TestBatchEventSubscriber extends AbstractBatchEventSubscriber<TestPayload> {
+
+        TestBatchEventSubscriber() {
+            super(new ObjectMapper(), "Test", TestPayload.class);
+        }
+
+        @Override
+        protected void handleOwnTypes(List<TestPayload> payloads) {
+            if (payloads.stream().anyMatch(payload -> payload.name.equals(failingName))) {
+                throw new IllegalStateException("failing");
+            }
+            batches.add(payloads);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        channel = mock(Channel.class);
+        when(channel.isOpen()).thenReturn(true);
+        subscriber = new TestBatchEventSubscriber();
+        subscriber.setBatchSize(3);
+        subscriber.setBatchWindowMillis(50);
+    }
+
+    @After
+    public void tearDown() {
+        subscriber.destroy();
+    }
+
+    @Test
+    public void should_handle_full_batch_and_ack_it_at_once() throws Exception {
+        givenMessages(1, 2, 3);
+
+        then(batches).hasSize(1);
+        then(batches.get(0)).extracting("name").containsExactly("1", "2", "3");
+        verify(channel).basicAck(3, true);
+    }
+
+    @Test
+    public void should_flush_incomplete_batch_after_window() throws Exception {
+        givenMessages(1, 2);
+
+        verify(channel, timeout(1000)).basicAck(2, true);
+        then(batches).hasSize(1);
+        then(batches.get(0)).hasSize(2);
+    }
+
+    @Test
+    public void should_requeue_failing_event_once_and_ack_the_others() throws Exception {
+        failingName = "2";
+
+        givenMessages(1, 2, 3);
+
+        verify(channel).basicAck(1, false);
+        verify(channel).basicNack(2, false, true);
+        verify(channel).basicAck(3, false);
+        then(batches).extracting(payloads -> payloads.get(0).name).containsExactly("1", "3");
+    }
+
+    @Test
+    public void should_reject_redelivered_failing_event() throws Exception {
+        failingName = "2";
+
+        givenRedeliveredMessages(1, 2, 3);
+
+        verify(channel).basicReject(2, false);
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+        verify(channel).basicAck(3, false);
+    }
+
+    @Test
+    public void should_reject_undecodable_event() throws Exception {
+        subscriber.onMessage(new Message("no event".getBytes(UTF_8), deliveredAs(1, false)), channel);
+        givenMessages(2, 3);
+
+        verify(channel).basicReject(1, false);
+        verify(channel).basicAck(3, true);
+        then(batches.get(0)).extracting("name").containsExactly("2", "3");
+    }
+
+    @Test
+    public void should_drop_batch_of_closed_channel() throws Exception {
+        givenMessages(1, 2);
+        when(channel.isOpen()).thenReturn(false);
+
+        verify(channel, timeout(1000)).isOpen();
+        givenMessages(3);
+
+        then(batches).isEmpty();
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    private void givenMessages(int... deliveryTags) {
+        givenMessages(false, deliveryTags);
+    }
+
+    private void givenRedeliveredMessages(int... deliveryTags) {
+        givenMessages(true, deliveryTags);
+    }
+
+    private void givenMessages(boolean redelivered, int... deliveryTags) {
+        for (int deliveryTag : deliveryTags) {
+            String json = String.format("{\"type\":\"Test\",\"payload\":{\"name\":\"%s\"}}", deliveryTag);
+            subscriber.onMessage(new Message(json.getBytes(UTF_8), deliveredAs(deliveryTag, redelivered)), channel);
+        }
+    }
+
+    private static MessageProperties deliveredAs(int deliveryTag, boolean redelivered) {
+        MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setDeliveryTag(deliveryTag);
+        messageProperties.setRedelivered(redelivered);
+        return messageProperties;
+    }
+}
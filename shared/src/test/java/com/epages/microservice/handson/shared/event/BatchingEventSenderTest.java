@@ -0,0 +1,103 @@
+package com.epages.microservice.handson.shared.event;
+
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+
+public class BatchingEventSenderTest {
+
+    private Channel channel;
+
+    private BatchingEventSender eventSender;
+
+    @Before
+    public void setUp() throws Exception {
+        channel = mock(Channel.class);
+        when(channel.isOpen()).thenReturn(true);
+        Connection connection = mock(Connection.class);
+        when(connection.createChannel(false)).thenReturn(channel);
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        when(connectionFactory.createConnection()).thenReturn(connection);
+
+        eventSender = new BatchingEventSender(connectionFactory, "rnd.events", 100, 10, 100, 100, 1, 10);
+        eventSender.afterPropertiesSet();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        eventSender.destroy();
+    }
+
+    @Test
+    public void should_complete_future_when_confirmed() throws Exception {
+        CompletableFuture<Void> future = eventSender.send("OrderCreated", message());
+
+        future.get(1, TimeUnit.SECONDS);
+
+        verify(channel).confirmSelect();
+        verify(channel).basicPublish(eq("rnd.events"), eq("OrderCreated"), eq(false), any(AMQP.BasicProperties.class), any(byte[].class));
+        then(eventSender.metrics()).extracting("name", "value").contains(tuple("events.publisher.sent", 1L));
+    }
+
+    @Test
+    public void should_retry_unconfirmed_batch() throws Exception {
+        doThrow(new TimeoutException()).doNothing().when(channel).waitForConfirmsOrDie(anyLong());
+
+        eventSender.send("OrderCreated", message()).get(1, TimeUnit.SECONDS);
+
+        verify(channel, times(2)).basicPublish(anyString(), eq("OrderCreated"), anyBoolean(), any(AMQP.BasicProperties.class), any(byte[].class));
+    }
+
+    @Test
+    public void should_fail_future_after_retries() throws Exception {
+        doThrow(new TimeoutException()).when(channel).waitForConfirmsOrDie(anyLong());
+
+        CompletableFuture<Void> future = eventSender.send("OrderCreated", message());
+
+        Throwable failure = null;
+        try {
+            future.get(1, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            failure = e.getCause();
+        }
+        then(failure).isInstanceOf(TimeoutException.class);
+    }
+
+    @Test(expected = AmqpException.class)
+    public void should_reject_events_until_started() throws Exception {
+        BatchingEventSender notStarted = new BatchingEventSender(mock(ConnectionFactory.class), "rnd.events", 100, 10,
+                100, 100, 1, 10);
+
+        notStarted.send("OrderCreated", message());
+    }
+
+    private Message message() {
+        return new Message("{}".getBytes(), new MessageProperties());
+    }
+}
@@ -0,0 +1,105 @@
+package com.epages.microservice.handson.shared.event;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+public class EventDeduplicatorTest {
+
+    private ProcessedEventRepository processedEventRepository;
+
+    private PlatformTransactionManager transactionManager;
+
+    private EventDeduplicator eventDeduplicator;
+
+    private List<List<Event<String>>> handledBatches = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        processedEventRepository = mock(ProcessedEventRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        eventDeduplicator = new EventDeduplicator(processedEventRepository, transactionManager, 2);
+    }
+
+    @Test
+    public void should_reject_duplicate_within_window_without_database() {
+        then(eventDeduplicator.processOnce(singletonList(event("1")), handledBatches::add)).hasSize(1);
+        then(eventDeduplicator.processOnce(singletonList(event("1")), handledBatches::add)).isEmpty();
+
+        then(handledBatches).hasSize(1);
+        verify(processedEventRepository, times(1)).findAll(any(Iterable.class));
+    }
+
+    @Test
+    public void should_reject_duplicate_outside_window_by_database() {
+        when(processedEventRepository.findAll(any(Iterable.class)))
+                .thenReturn(singletonList(new ProcessedEvent("1", "OrderCreated")));
+
+        then(eventDeduplicator.processOnce(asList(event("1"), event("2")), handledBatches::add))
+                .extracting(Event::getId).containsExactly("2");
+
+        then(handledBatches).hasSize(1);
+    }
+
+    @Test
+    public void should_handle_event_again_after_handler_failed() {
+        try {
+            eventDeduplicator.processOnce(singletonList(event("1")), events -> {
+                throw new IllegalStateException("failing");
+            });
+        } catch (IllegalStateException expected) {
+            // the marker is rolled back with the handler's changes
+        }
+        verify(transactionManager).rollback(any(TransactionStatus.class));
+
+        then(eventDeduplicator.processOnce(singletonList(event("1")), handledBatches::add)).hasSize(1);
+    }
+
+    @Test
+    public void should_handle_event_again_after_marking_failed() {
+        doThrow(new DataAccessResourceFailureException("database down")).doNothing().when(processedEventRepository).flush();
+        try {
+            eventDeduplicator.processOnce(singletonList(event("1")), handledBatches::add);
+        } catch (DataAccessResourceFailureException expected) {
+            // not a duplicate, so the event must not be remembered
+        }
+        then(handledBatches).isEmpty();
+
+        then(eventDeduplicator.processOnce(singletonList(event("1")), handledBatches::add)).hasSize(1);
+    }
+
+    @Test
+    public void should_hand_over_event_once_per_batch() {
+        doNothing().when(processedEventRepository).flush();
+
+        then(eventDeduplicator.processOnce(asList(event("1"), event("1"), event(null)), handledBatches::add))
+                .extracting(Event::getId).containsExactly("1", null);
+
+        verify(transactionManager, never()).rollback(any(TransactionStatus.class));
+    }
+
+    private static Event<String> event(String id) {
+        final Event<String> event = new Event<>();
+        event.setId(id);
+        event.setType("OrderCreated");
+        event.setPayload("payload");
+        return event;
+    }
+}
@@ -0,0 +1,59 @@
+package com.epages.microservice.handson.shared.event;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.io.IOException;
+import java.net.URI;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class EventEnvelopeReaderTest {
+
+    private final EventEnvelopeReader<TestPayload> eventReader =
+            new EventEnvelopeReader<>(new ObjectMapper(), "OrderCreated", TestPayload.class);
+
+    private Event<TestPayload> event;
+
+    public static class TestPayload {
+        public URI orderLink;
+    }
+
+    @Test
+    public void should_bind_payload_of_own_type() throws IOException {
+        whenEventRead("{\"id\":\"42\",\"type\":\"OrderCreated\",\"timestamp\":\"2015-09-01T21:43:48.391\","
+                + "\"payload\":{\"orderLink\":\"http://localhost/orders/1\"}}");
+
+        then(event.getId()).isEqualTo("42");
+        then(event.getType()).isEqualTo("OrderCreated");
+        then(event.getTimestamp().getYear()).isEqualTo(2015);
+        then(event.getPayload().orderLink).isEqualTo(URI.create("http://localhost/orders/1"));
+    }
+
+    @Test
+    public void should_bind_payload_preceding_type() throws IOException {
+        whenEventRead("{\"payload\":{\"orderLink\":\"http://localhost/orders/1\"},\"type\":\"OrderCreated\"}");
+
+        then(event.getType()).isEqualTo("OrderCreated");
+        then(event.getPayload().orderLink).isEqualTo(URI.create("http://localhost/orders/1"));
+    }
+
+    @Test
+    public void should_skip_payload_of_foreign_type() throws IOException {
+        // the payload is not even valid for TestPayload - it must never be bound
+        whenEventRead("{\"type\":\"BakingFinished\",\"payload\":{\"orderLink\":{\"unexpected\":[1,2]}}}");
+
+        then(event.getType()).isEqualTo("BakingFinished");
+        then(event.getPayload()).isNull();
+    }
+
+    @Test(expected = IOException.class)
+    public void should_fail_on_missing_type() throws IOException {
+        whenEventRead("{\"payload\":{}}");
+    }
+
+    private void whenEventRead(String json) throws IOException {
+        event = eventReader.read(json);
+    }
+}
@@ -0,0 +1,118 @@
+package com.epages.microservice.handson.shared.event;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toMap;
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class EventMetricsTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private EventMetrics eventMetrics;
+
+    private Map<String, Number> metrics;
+
+    public static class TestPayload {
+        public String name;
+    }
+
+    @Before
+    public void setUp() {
+        eventMetrics = new EventMetrics();
+    }
+
+    @Test
+    public void should_report_handler_latency_percentiles_per_type() {
+        for (int millis = 1; millis <= 100; millis++) {
+            eventMetrics.handled("OrderCreated", null, MILLISECONDS.toNanos(millis));
+        }
+        eventMetrics.handled("Delivered", null, MILLISECONDS.toNanos(7));
+
+        whenMetricsRead();
+
+        then(metrics.get("events.consumed.OrderCreated.count")).isEqualTo(100L);
+        then(metrics.get("events.consumed.OrderCreated.handler.millis.p50").doubleValue()).isBetween(50.0, 50.0 * 1.125);
+        then(metrics.get("events.consumed.OrderCreated.handler.millis.p99").doubleValue()).isBetween(99.0, 100.0);
+        then(metrics.get("events.consumed.OrderCreated.handler.millis.max")).isEqualTo(100.0);
+        then(metrics.get("events.consumed.Delivered.count")).isEqualTo(1L);
+        then(metrics.get("events.consumed.Delivered.handler.millis.p50")).isEqualTo(7.0);
+    }
+
+    @Test
+    public void should_count_handled_failed_and_duplicate_events_of_subscriber() {
+        final TestEventSubscriber subscriber = new TestEventSubscriber();
+        subscriber.setEventMetrics(eventMetrics);
+        subscriber.setEventDeduplicator(new EventDeduplicator(mock(ProcessedEventRepository.class),
+                mock(PlatformTransactionManager.class), 10));
+        final String timestamp = LocalDateTime.now().minusSeconds(2).toString();
+
+        subscriber.consume("{\"id\":\"1\",\"type\":\"OrderCreated\",\"timestamp\":\"" + timestamp + "\",\"payload\":{\"name\":\"ok\"}}");
+        subscriber.consume("{\"id\":\"1\",\"type\":\"OrderCreated\",\"timestamp\":\"" + timestamp + "\",\"payload\":{\"name\":\"ok\"}}");
+        try {
+            subscriber.consume("{\"id\":\"2\",\"type\":\"OrderCreated\",\"timestamp\":\"" + timestamp + "\",\"payload\":{\"name\":\"fail\"}}");
+        } catch (IllegalStateException expected) {
+            // counted as failed
+        }
+
+        whenMetricsRead();
+
+        then(metrics.get("events.consumed.OrderCreated.count")).isEqualTo(1L);
+        then(metrics.get("events.consumed.OrderCreated.duplicates")).isEqualTo(1L);
+        then(metrics.get("events.consumed.OrderCreated.failed")).isEqualTo(1L);
+        then(metrics.get("events.consumed.OrderCreated.lag.millis.max").doubleValue()).isGreaterThanOrEqualTo(2000.0);
+    }
+
+    @Test
+    public void should_count_published_and_failed_events() {
+        final EventSender eventSender = mock(EventSender.class);
+        final CompletableFuture<Void> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new AmqpException("not confirmed"));
+        when(eventSender.send(any(String.class), any(Message.class)))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(failed);
+        final EventPublisher eventPublisher = new EventPublisher(OBJECT_MAPPER, eventSender);
+        eventPublisher.setEventMetrics(eventMetrics);
+
+        eventPublisher.publish("OrderCreated", "{}");
+        eventPublisher.publish("OrderCreated", "{}");
+
+        whenMetricsRead();
+
+        then(metrics.get("events.published.OrderCreated.count")).isEqualTo(1L);
+        then(metrics.get("events.published.OrderCreated.failed")).isEqualTo(1L);
+    }
+
+    private void whenMetricsRead() {
+        metrics = eventMetrics.metrics().stream().collect(toMap(Metric::getName, Metric::getValue));
+    }
+
+    private class TestEventSubscriber extends AbstractEventSubscriber<TestPayload> {
+
+        TestEventSubscriber() {
+            super(OBJECT_MAPPER, "OrderCreated", TestPayload.class);
+        }
+
+        @Override
+        protected void handleOwnType(TestPayload payload) {
+            if ("fail".equals(payload.name)) {
+                throw new IllegalStateException("failing");
+            }
+        }
+    }
+}
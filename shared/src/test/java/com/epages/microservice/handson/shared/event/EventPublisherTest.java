@@ -0,0 +1,102 @@
+package com.epages.microservice.handson.shared.event;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.net.URI;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class EventPublisherTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private EventSender eventSender;
+
+    private EventPublisher eventPublisher;
+
+    private Event<TestPayload> event;
+
+    private Message message;
+
+    public static class TestPayload {
+        public URI orderLink;
+    }
+
+    @Before
+    public void setUp() {
+        eventSender = mock(EventSender.class);
+        eventPublisher = new EventPublisher(objectMapper, eventSender);
+    }
+
+    @Test
+    public void should_publish_typed_payload() throws IOException {
+        TestPayload payload = new TestPayload();
+        payload.orderLink = URI.create("http://localhost/orders/1");
+
+        eventPublisher.publish("OrderCreated", payload);
+
+        whenPublishedEventRead();
+        then(event.getId()).isNotEmpty();
+        then(event.getType()).isEqualTo("OrderCreated");
+        then(event.getTimestamp()).isNotNull();
+        then(event.getPayload().orderLink).isEqualTo(payload.orderLink);
+    }
+
+    @Test
+    public void should_publish_json_payload() throws IOException {
+        eventPublisher.publish("OrderCreated", "{\"orderLink\":\"http://localhost/orders/2\"}");
+
+        whenPublishedEventRead();
+        then(event.getPayload().orderLink).isEqualTo(URI.create("http://localhost/orders/2"));
+    }
+
+    @Test
+    public void should_publish_given_event_id() throws IOException {
+        eventPublisher.publish("4711", "OrderCreated", "{\"orderLink\":\"http://localhost/orders/2\"}");
+
+        whenPublishedEventRead();
+        then(event.getId()).isEqualTo("4711");
+    }
+
+    @Test
+    public void should_publish_binary_event() throws IOException {
+        eventPublisher = new EventPublisher(objectMapper, eventSender, EventEncoding.SMILE);
+        TestPayload payload = new TestPayload();
+        payload.orderLink = URI.create("http://localhost/orders/3");
+
+        eventPublisher.publish("OrderCreated", payload);
+
+        whenPublishedEventRead();
+        then(message.getMessageProperties().getContentType()).isEqualTo("application/x-jackson-smile");
+        then(event.getType()).isEqualTo("OrderCreated");
+        then(event.getPayload().orderLink).isEqualTo(payload.orderLink);
+    }
+
+    @Test
+    public void should_transcode_json_payload_to_binary_event() throws IOException {
+        eventPublisher = new EventPublisher(objectMapper, eventSender, EventEncoding.SMILE);
+
+        eventPublisher.publish("OrderCreated", "{\"orderLink\":\"http://localhost/orders/4\"}");
+
+        whenPublishedEventRead();
+        then(message.getMessageProperties().getContentType()).isEqualTo("application/x-jackson-smile");
+        then(event.getPayload().orderLink).isEqualTo(URI.create("http://localhost/orders/4"));
+    }
+
+    private void whenPublishedEventRead() throws IOException {
+        ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(eventSender).send(eq("OrderCreated"), messageCaptor.capture());
+        message = messageCaptor.getValue();
+        event = new EventEnvelopeReader<>(objectMapper, "OrderCreated", TestPayload.class)
+                .read(message.getBody(), EventEncoding.forContentType(message.getMessageProperties().getContentType()));
+    }
+}
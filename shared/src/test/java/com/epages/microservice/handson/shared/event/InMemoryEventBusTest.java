@@ -0,0 +1,84 @@
+package com.epages.microservice.handson.shared.event;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class InMemoryEventBusTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final BlockingQueue<String> handled = new LinkedBlockingQueue<>();
+
+    private final AtomicInteger failures = new AtomicInteger();
+
+    private InMemoryEventBus eventBus;
+
+    private EventPublisher eventPublisher;
+
+    public static class TestPayload {
+        public String name;
+    }
+
+    private class TestEventSubscriber extends AbstractEventSubscriber<TestPayload> {
+
+        private final String queue;
+
+        TestEventSubscriber(String queue, String type) {
+            super(OBJECT_MAPPER, type, TestPayload.class);
+            this.queue = queue;
+        }
+
+        @Override
+        protected void handleOwnType(TestPayload payload) {
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("failing");
+            }
+            handled.add(queue + ":" + payload.name);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        eventBus = new InMemoryEventBus(3, 10);
+        eventPublisher = new EventPublisher(OBJECT_MAPPER, eventBus);
+    }
+
+    @After
+    public void tearDown() {
+        eventBus.destroy();
+    }
+
+    @Test
+    public void should_route_event_to_every_queue_bound_for_its_type() throws Exception {
+        eventBus.bind("bakery.OrderCreated", new TestEventSubscriber("bakery", "OrderCreated"), 1);
+        eventBus.bind("delivery.OrderCreated", new TestEventSubscriber("delivery", "OrderCreated"), 1);
+        eventBus.bind("order.Delivered", new TestEventSubscriber("order", "Delivered"), 1);
+
+        eventPublisher.publish("OrderCreated", "{\"name\":\"42\"}");
+
+        then(asList(handled.poll(1, SECONDS), handled.poll(1, SECONDS))).containsOnly("bakery:42", "delivery:42");
+        then(handled.poll(100, MILLISECONDS)).isNull();
+    }
+
+    @Test
+    public void should_redeliver_event_the_subscriber_failed_on() throws Exception {
+        eventBus.bind("bakery.OrderCreated", new TestEventSubscriber("bakery", "OrderCreated"), 1);
+        failures.set(2);
+
+        eventPublisher.publish("OrderCreated", "{\"name\":\"42\"}");
+
+        then(handled.poll(1, SECONDS)).isEqualTo("bakery:42");
+    }
+}
@@ -0,0 +1,48 @@
+package com.epages.microservice.handson.shared.event;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+public class ProcessedEventPrunerTest {
+
+    private ProcessedEventRepository processedEventRepository;
+
+    private ProcessedEventPruner processedEventPruner;
+
+    @Before
+    public void setUp() {
+        processedEventRepository = mock(ProcessedEventRepository.class);
+        processedEventPruner = new ProcessedEventPruner(processedEventRepository, Duration.ofHours(24), 60000);
+    }
+
+    @Test
+    public void should_delete_markers_older_than_retention() {
+        when(processedEventRepository.deleteProcessedBefore(any(LocalDateTime.class))).thenReturn(3);
+
+        then(processedEventPruner.prune()).isEqualTo(3);
+
+        final ArgumentCaptor<LocalDateTime> processedBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(processedEventRepository).deleteProcessedBefore(processedBefore.capture());
+        then(processedBefore.getValue()).isAfter(LocalDateTime.now().minusHours(24).minusMinutes(1))
+                .isBefore(LocalDateTime.now().minusHours(24).plusSeconds(1));
+    }
+
+    @Test
+    public void should_try_again_later_if_database_fails() {
+        when(processedEventRepository.deleteProcessedBefore(any(LocalDateTime.class)))
+                .thenThrow(new DataAccessResourceFailureException("database down"));
+
+        then(processedEventPruner.prune()).isEqualTo(0);
+    }
+}
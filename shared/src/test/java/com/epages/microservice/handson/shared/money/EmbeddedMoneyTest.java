@@ -0,0 +1,32 @@
+package com.epages.microservice.handson.shared.money;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import org.javamoney.moneta.Money;
+import org.junit.Test;
+
+public class EmbeddedMoneyTest {
+
+    @Test
+    public void should_store_minor_units_of_currency() {
+        then(EmbeddedMoney.of(Money.of(1234.5, "EUR")).getAmount()).isEqualTo(123450L);
+        then(EmbeddedMoney.of(Money.of(-3.5, "EUR")).getAmount()).isEqualTo(-350L);
+        then(EmbeddedMoney.of(Money.of(1234, "JPY")).getAmount()).isEqualTo(1234L);
+        then(EmbeddedMoney.of(Money.of(1.5, "BHD")).getAmount()).isEqualTo(1500L);
+        then(EmbeddedMoney.of(Money.of(8.9, "EUR")).getCurrency()).isEqualTo("EUR");
+    }
+
+    @Test
+    public void should_round_half_even_to_minor_units() {
+        then(EmbeddedMoney.of(Money.of(0.125, "EUR")).getAmount()).isEqualTo(12L);
+        then(EmbeddedMoney.of(Money.of(0.135, "EUR")).getAmount()).isEqualTo(14L);
+    }
+
+    @Test
+    public void should_restore_amount() {
+        for (Money money : new Money[] {Money.of(8.9, "EUR"), Money.of(-3.5, "EUR"), Money.of(1234, "JPY"), Money.of(0, "EUR")}) {
+            then(EmbeddedMoney.of(money).toMonetaryAmount()).isEqualTo(money);
+        }
+        then(EmbeddedMoney.of(null)).isNull();
+    }
+}
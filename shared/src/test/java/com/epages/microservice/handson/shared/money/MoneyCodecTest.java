@@ -0,0 +1,55 @@
+package com.epages.microservice.handson.shared.money;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Random;
+
+import javax.money.format.MonetaryAmountFormat;
+import javax.money.format.MonetaryFormats;
+
+import org.javamoney.moneta.Money;
+import org.junit.Test;
+
+public class MoneyCodecTest {
+
+    private static final MonetaryAmountFormat FORMAT = MonetaryFormats.getAmountFormat(Locale.ROOT);
+
+    @Test
+    public void should_format_like_monetary_format() {
+        String[] numbers = {"0", "8.9", "9.90", "0.125", "0.135", "2.675", "9.999", "-3.5", "-0.004", "-1234.5",
+                "1234567.891", "1E+3", "999999999999999.99", "12345678901234567890.12"};
+        for (String number : numbers) {
+            for (String currency : new String[] {"EUR", "JPY", "BHD"}) {
+                Money money = Money.of(new BigDecimal(number), currency);
+                then(MoneyCodec.format(money)).isEqualTo(FORMAT.format(money));
+            }
+        }
+    }
+
+    @Test
+    public void should_format_random_amounts_like_monetary_format() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            Money money = Money.of(BigDecimal.valueOf(random.nextLong() % 100_000_000_000L, random.nextInt(5)), "EUR");
+            then(MoneyCodec.format(money)).isEqualTo(FORMAT.format(money));
+        }
+    }
+
+    @Test
+    public void should_parse_like_monetary_format() {
+        String[] texts = {"EUR 8.90", "EUR 8.9", "EUR 8", "EUR 1,234.50", "EUR 1234.50", "EUR -3.50", "EUR  8.90",
+                " EUR 8.90 ", "EUR 8,90", "EUR-3.50", "USD 0.00", "EUR 1e3", "EUR 12345678901234567890.12"};
+        for (String text : texts) {
+            then(MoneyCodec.parse(text)).as(text).isEqualTo(Money.parse(text, FORMAT));
+        }
+    }
+
+    @Test
+    public void should_parse_formatted_negative_amount() {
+        Money money = Money.of(new BigDecimal("-3.5"), "EUR");
+
+        then(MoneyCodec.parse(MoneyCodec.format(money))).isEqualTo(money);
+    }
+}
@@ -0,0 +1,125 @@
+package com.epages.microservice.handson.shared.tracing;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.amqp.core.Message;
+
+import com.epages.microservice.handson.shared.event.AbstractEventSubscriber;
+import com.epages.microservice.handson.shared.event.EventPublisher;
+import com.epages.microservice.handson.shared.event.EventSender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class TracerTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private SpanRepository spanRepository;
+
+    private Tracer tracer;
+
+    private TracingTaskExecutor executor;
+
+    public static class TestPayload {
+        public String name;
+    }
+
+    @Before
+    public void setUp() {
+        spanRepository = new SpanRepository(100);
+        tracer = new Tracer("order", spanRepository);
+        executor = new TracingTaskExecutor(tracer);
+        executor.setThreadNamePrefix("order-create-");
+        executor.initialize();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void should_record_nested_spans_of_a_trace() {
+        final Span request;
+        final Span call;
+        try (Span span = tracer.start("POST /orders")) {
+            request = span;
+            try (Span child = tracer.start("call GET catalog/pizzas/{id}")) {
+                call = child;
+            }
+            then(Tracer.currentSpan()).isSameAs(request);
+        }
+
+        then(Tracer.currentSpan()).isNull();
+        then(call.getTraceId()).isEqualTo(request.getTraceId());
+        then(call.getParentSpanId()).isEqualTo(request.getSpanId());
+        then(request.getParentSpanId()).isNull();
+        then(spanRepository.findByTraceId(request.getTraceId())).containsExactly(request, call);
+        final List<HopLatency> hops = spanRepository.getHopLatencies();
+        then(hops).extracting(HopLatency::getName).containsExactly("POST /orders", "call GET catalog/pizzas/{id}");
+        then(hops.get(0).getMax()).isGreaterThanOrEqualTo(hops.get(1).getMax());
+    }
+
+    @Test
+    public void should_continue_trace_in_async_task() throws Exception {
+        final AtomicReference<Span> async = new AtomicReference<>();
+        final Span request;
+        try (Span span = tracer.start("POST /orders")) {
+            request = span;
+            executor.submit(() -> async.set(Tracer.currentSpan())).get();
+        }
+
+        then(async.get().getName()).isEqualTo("async order-create");
+        then(async.get().getTraceId()).isEqualTo(request.getTraceId());
+        then(async.get().getParentSpanId()).isEqualTo(request.getSpanId());
+        then(async.get().getDurationMillis()).isGreaterThanOrEqualTo(0);
+    }
+
+    @Test
+    public void should_continue_trace_in_subscriber_of_published_event() {
+        final EventSender eventSender = mock(EventSender.class);
+        final AtomicReference<Message> sent = new AtomicReference<>();
+        when(eventSender.send(any(String.class), any(Message.class))).thenAnswer(invocation -> {
+            sent.set((Message) invocation.getArguments()[1]);
+            return CompletableFuture.completedFuture(null);
+        });
+        final Span publishing;
+        try (Span span = tracer.start("relay OrderCreated")) {
+            publishing = span;
+            new EventPublisher(OBJECT_MAPPER, eventSender).publish("OrderCreated", "{\"name\":\"Pizza\"}");
+        }
+        final TestEventSubscriber subscriber = new TestEventSubscriber();
+        subscriber.setTracer(new Tracer("bakery", spanRepository));
+
+        subscriber.onMessage(sent.get());
+
+        then(subscriber.span.getService()).isEqualTo("bakery");
+        then(subscriber.span.getName()).isEqualTo("consume OrderCreated");
+        then(subscriber.span.getTraceId()).isEqualTo(publishing.getTraceId());
+        then(subscriber.span.getParentSpanId()).isEqualTo(publishing.getSpanId());
+        then(spanRepository.findByTraceId(publishing.getTraceId())).containsExactly(publishing, subscriber.span);
+    }
+
+    private static class TestEventSubscriber extends AbstractEventSubscriber<TestPayload> {
+
+        private Span span;
+
+        TestEventSubscriber() {
+            super(OBJECT_MAPPER, "OrderCreated", TestPayload.class);
+        }
+
+        @Override
+        protected void handleOwnType(TestPayload payload) {
+            span = Tracer.currentSpan();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.epages.microservice.handson.shared.validation;
 
+import static org.assertj.core.api.BDDAssertions.then;
+
 import javax.validation.ConstraintViolationException;
 import javax.validation.Validator;
 import javax.validation.constraints.NotNull;
@@ -61,6 +63,8 @@ public class ValidateAspectTest {
 
         Data testOutputParam();
 
+        Data testNullOutputParam();
+
         Data testNonAnnotatedMethod();
     }
 
@@ -84,6 +88,11 @@ public class ValidateAspectTest {
             return new Data();
         }
 
+        @Valid
+        public Data testNullOutputParam() {
+            return null;
+        }
+
         public Data testNonAnnotatedMethod() {
             return new Data();
         }
@@ -113,6 +122,11 @@ public class ValidateAspectTest {
         dummyService.testOutputParam();
     }
 
+    @Test
+    public void should_not_fail_on_null_output_parameter() {
+        then(dummyService.testNullOutputParam()).isNull();
+    }
+
     @Test
     public void should_not_fail_on_valid_input_parameter() {
         Data d = new Data();
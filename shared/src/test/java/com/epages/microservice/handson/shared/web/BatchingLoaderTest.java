@@ -0,0 +1,113 @@
+package com.epages.microservice.handson.shared.web;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class BatchingLoaderTest {
+
+    private final List<Collection<String>> bulkLoads = new ArrayList<>();
+
+    private BatchingLoader<String, String> batchingLoader;
+
+    @After
+    public void tearDown() {
+        batchingLoader.destroy();
+    }
+
+    @Test
+    public void should_coalesce_loads_within_window() throws Exception {
+        givenBatchingLoader(keys -> keys.stream().filter(key -> !key.equals("unknown"))
+                .collect(Collectors.toMap(Function.identity(), String::toUpperCase)), 10, 50);
+
+        CompletableFuture<String> first = batchingLoader.load("a");
+        CompletableFuture<String> second = batchingLoader.load("b");
+        CompletableFuture<String> duplicate = batchingLoader.load("a");
+        CompletableFuture<String> unknown = batchingLoader.load("unknown");
+
+        then(first.get(1, SECONDS)).isEqualTo("A");
+        then(second.get(1, SECONDS)).isEqualTo("B");
+        then(duplicate).isSameAs(first);
+        then(unknown.get(1, SECONDS)).isNull();
+        then(bulkLoads).hasSize(1);
+    }
+
+    @Test
+    public void should_load_full_batch_before_window_passed() throws Exception {
+        givenBatchingLoader(keys -> keys.stream().collect(Collectors.toMap(Function.identity(), String::toUpperCase)), 2, 60000);
+
+        CompletableFuture<String> first = batchingLoader.load("a");
+        CompletableFuture<String> second = batchingLoader.load("b");
+
+        then(first.get(1, SECONDS)).isEqualTo("A");
+        then(second.get(1, SECONDS)).isEqualTo("B");
+        then(bulkLoads).hasSize(1);
+    }
+
+    @Test
+    public void should_fail_all_loads_of_failed_batch() throws Exception {
+        givenBatchingLoader(keys -> {
+            throw new IllegalStateException("unavailable");
+        }, 10, 10);
+
+        CompletableFuture<String> first = batchingLoader.load("a");
+        CompletableFuture<String> second = batchingLoader.load("b");
+
+        then(failure(first)).isInstanceOf(IllegalStateException.class);
+        then(failure(second)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void should_fail_loads_of_batch_whose_load_threw_error() throws Exception {
+        givenBatchingLoader(keys -> {
+            throw new AssertionError("broken");
+        }, 10, 10);
+
+        CompletableFuture<String> first = batchingLoader.load("a");
+
+        then(failure(first)).isInstanceOf(AssertionError.class);
+    }
+
+    @Test
+    public void should_fail_loads_after_destroy() throws Exception {
+        givenBatchingLoader(keys -> keys.stream().collect(Collectors.toMap(Function.identity(), String::toUpperCase)), 10, 10);
+        batchingLoader.destroy();
+
+        CompletableFuture<String> first = batchingLoader.load("a");
+        CompletableFuture<String> second = batchingLoader.load("a");
+
+        then(failure(first)).isInstanceOf(RejectedExecutionException.class);
+        then(failure(second)).isInstanceOf(RejectedExecutionException.class);
+        then(bulkLoads).isEmpty();
+    }
+
+    private void givenBatchingLoader(Function<Collection<String>, Map<String, String>> bulkLoader, int maxBatchSize, long windowMillis) {
+        batchingLoader = new BatchingLoader<>("test-loader", keys -> {
+            synchronized (bulkLoads) {
+                bulkLoads.add(new ArrayList<>(keys));
+            }
+            return bulkLoader.apply(keys);
+        }, maxBatchSize, windowMillis, 2);
+    }
+
+    private Throwable failure(CompletableFuture<String> future) throws Exception {
+        try {
+            future.get(1, SECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+    }
+}